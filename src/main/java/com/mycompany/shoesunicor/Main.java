@@ -4,7 +4,9 @@
  */
 package com.mycompany.shoesunicor;
 
+import com.mycompany.shoesunicor.util.DataDirectoryWatcher;
 import com.mycompany.shoesunicor.util.DataInitializer;
+import com.mycompany.shoesunicor.util.JsonDatabase;
 import com.mycompany.shoesunicor.util.Session;
 import com.mycompany.shoesunicor.view.LoginView;
 import com.mycompany.shoesunicor.view.MainView;
@@ -13,6 +15,8 @@ import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+
 /**
  * Aplicación principal Unicor Shoes
  * @author Victor Negrete
@@ -21,10 +25,12 @@ public class Main extends Application {
     
     private Stage primaryStage;
     private Scene scene;
+    private DataDirectoryWatcher dataWatcher;
 
     @Override
     public void start(Stage primaryStage) {
         DataInitializer.initializeData();
+        startDataWatcher();
 
         this.primaryStage = primaryStage;
 
@@ -39,6 +45,17 @@ public class Main extends Application {
         primaryStage.show();
     }
 
+    /**
+     * Recarga en segundo plano las colecciones que otra instancia modifique
+     */
+    private void startDataWatcher() {
+        try {
+            dataWatcher = DataDirectoryWatcher.start();
+        } catch (IOException e) {
+            System.err.println("No se pudo vigilar el directorio de datos: " + e.getMessage());
+        }
+    }
+
     private void showLogin() {
         LoginView loginView = new LoginView(
                 this::showMainView,
@@ -76,6 +93,15 @@ public class Main extends Application {
         }
     }
 
+    @Override
+    public void stop() {
+        if (dataWatcher != null) {
+            dataWatcher.close();
+        }
+        // Volcar los logs de cambios dentro de los archivos JSON al cerrar
+        JsonDatabase.compactAll();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
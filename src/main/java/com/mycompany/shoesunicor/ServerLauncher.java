@@ -0,0 +1,39 @@
+/*
+ * Launcher del modo servidor para ShoesUnicor
+ * Expone la tienda como API HTTP, sin interfaz gráfica
+ */
+package com.mycompany.shoesunicor;
+
+import com.mycompany.shoesunicor.api.ApiServer;
+import com.mycompany.shoesunicor.util.DataDirectoryWatcher;
+import com.mycompany.shoesunicor.util.DataInitializer;
+
+import java.io.IOException;
+
+/**
+ * Clase lanzadora del servidor HTTP
+ * Uso: ServerLauncher [puerto]  (por defecto -Dshoesunicor.api.port o 8080)
+ *
+ * @author Victor Negrete
+ */
+public class ServerLauncher {
+
+    /**
+     * Punto de entrada del modo servidor
+     * @param args argumentos de línea de comandos
+     */
+    public static void main(String[] args) throws IOException {
+        DataInitializer.initializeData();
+
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : ApiServer.configuredPort();
+        ApiServer server = new ApiServer(port);
+        DataDirectoryWatcher dataWatcher = DataDirectoryWatcher.start();
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(2);
+            dataWatcher.close();
+        }, "api-shutdown"));
+
+        System.out.println("API de Unicor Shoes escuchando en http://localhost:" + server.getPort() + "/api");
+    }
+}
@@ -0,0 +1,39 @@
+package com.mycompany.shoesunicor.api;
+
+/**
+ * Error de la API con su código HTTP
+ * Los manejadores la lanzan y ApiHandler la convierte en una respuesta {"error": "..."}
+ * @author Victor Negrete
+ */
+public class ApiException extends RuntimeException {
+    private final int status;
+
+    public ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public static ApiException badRequest(String message) {
+        return new ApiException(400, message);
+    }
+
+    public static ApiException unauthorized() {
+        return new ApiException(401, "Sesión inválida o expirada");
+    }
+
+    public static ApiException notFound(String message) {
+        return new ApiException(404, message);
+    }
+
+    public static ApiException methodNotAllowed() {
+        return new ApiException(405, "Método no permitido");
+    }
+
+    public static ApiException conflict(String message) {
+        return new ApiException(409, message);
+    }
+}
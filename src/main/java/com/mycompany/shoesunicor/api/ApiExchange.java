@@ -0,0 +1,177 @@
+package com.mycompany.shoesunicor.api;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.mycompany.shoesunicor.model.CartItem;
+import com.mycompany.shoesunicor.model.Order;
+import com.mycompany.shoesunicor.model.Product;
+import com.mycompany.shoesunicor.util.CartItemAdapter;
+import com.mycompany.shoesunicor.util.LocalDateTimeAdapter;
+import com.mycompany.shoesunicor.util.OrderAdapter;
+import com.mycompany.shoesunicor.util.ProductAdapter;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Petición HTTP de la API con utilidades para leer parámetros y cuerpo JSON y responder en JSON
+ * Los productos, órdenes e ítems del carrito se serializan con los mismos adaptadores que la base de datos.
+ * @author Victor Negrete
+ */
+public class ApiExchange {
+    private static final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter().nullSafe())
+            .registerTypeAdapter(Product.class, new ProductAdapter().nullSafe())
+            .registerTypeAdapter(CartItem.class, new CartItemAdapter().nullSafe())
+            .registerTypeAdapter(Order.class, new OrderAdapter().nullSafe())
+            .serializeNulls()
+            .create();
+
+    private final HttpExchange exchange;
+    private final String subPath;
+    private Map<String, String> queryParams;
+
+    ApiExchange(HttpExchange exchange) {
+        this.exchange = exchange;
+        String path = exchange.getRequestURI().getPath();
+        String context = exchange.getHttpContext().getPath();
+        String rest = path.length() > context.length() ? path.substring(context.length()) : "";
+        this.subPath = rest.startsWith("/") ? rest.substring(1) : rest;
+    }
+
+    public String getMethod() {
+        return exchange.getRequestMethod();
+    }
+
+    /**
+     * Parte de la ruta después del contexto: para /api/cart/items/PROD_1 en el contexto
+     * /api/cart devuelve "items/PROD_1"; vacío si la ruta es el propio contexto
+     */
+    public String getSubPath() {
+        return subPath;
+    }
+
+    public String getHeader(String name) {
+        return exchange.getRequestHeaders().getFirst(name);
+    }
+
+    /**
+     * Token de la cabecera "Authorization: Bearer <token>", o null si no viene
+     */
+    public String getBearerToken() {
+        String header = getHeader("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return null;
+        }
+        String token = header.substring(7).trim();
+        return token.isEmpty() ? null : token;
+    }
+
+    public String getQueryParam(String name) {
+        if (queryParams == null) {
+            queryParams = parseQuery(exchange.getRequestURI().getRawQuery());
+        }
+        return queryParams.get(name);
+    }
+
+    public int getIntQueryParam(String name, int defaultValue, int min, int max) {
+        String value = getQueryParam(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(min, Math.min(max, Integer.parseInt(value.trim())));
+        } catch (NumberFormatException e) {
+            throw ApiException.badRequest("Parámetro inválido: " + name);
+        }
+    }
+
+    /**
+     * Lee el cuerpo como objeto JSON; un cuerpo vacío es un objeto vacío
+     */
+    public JsonObject readJsonObject() {
+        try (Reader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+            JsonElement body = JsonParser.parseReader(reader);
+            if (body.isJsonNull()) {
+                return new JsonObject();
+            }
+            if (!body.isJsonObject()) {
+                throw ApiException.badRequest("Se esperaba un objeto JSON");
+            }
+            return body.getAsJsonObject();
+        } catch (JsonParseException | IllegalStateException e) {
+            throw ApiException.badRequest("JSON inválido");
+        } catch (IOException e) {
+            throw ApiException.badRequest("No se pudo leer el cuerpo de la petición");
+        }
+    }
+
+    public static String requireString(JsonObject body, String field) {
+        JsonElement value = body.get(field);
+        if (value == null || value.isJsonNull() || !value.isJsonPrimitive() || value.getAsString().isBlank()) {
+            throw ApiException.badRequest("Falta el campo: " + field);
+        }
+        return value.getAsString().trim();
+    }
+
+    public static int requireInt(JsonObject body, String field) {
+        JsonElement value = body.get(field);
+        try {
+            if (value != null && value.isJsonPrimitive() && value.getAsJsonPrimitive().isNumber()) {
+                return value.getAsInt();
+            }
+        } catch (NumberFormatException e) {
+            // Se informa abajo
+        }
+        throw ApiException.badRequest("Falta el campo numérico: " + field);
+    }
+
+    public void sendJson(int status, Object body) throws IOException {
+        byte[] bytes = gson.toJson(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    public void sendNoContent() throws IOException {
+        exchange.sendResponseHeaders(204, -1);
+        exchange.close();
+    }
+
+    public void setHeader(String name, String value) {
+        exchange.getResponseHeaders().set(name, value);
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq >= 0 ? pair.substring(0, eq) : pair;
+            String value = eq >= 0 ? pair.substring(eq + 1) : "";
+            try {
+                params.putIfAbsent(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                        URLDecoder.decode(value, StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException e) {
+                throw ApiException.badRequest("Parámetros de consulta inválidos");
+            }
+        }
+        return params;
+    }
+}
@@ -0,0 +1,59 @@
+package com.mycompany.shoesunicor.api;
+
+import com.mycompany.shoesunicor.util.Session;
+import com.mycompany.shoesunicor.util.SessionRegistry;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Base de los manejadores de la API
+ * Convierte ApiException en respuestas de error JSON y resuelve la sesión del cliente
+ * a partir del token de la cabecera Authorization.
+ * @author Victor Negrete
+ */
+abstract class ApiHandler implements HttpHandler {
+    protected final SessionRegistry sessions;
+
+    protected ApiHandler(SessionRegistry sessions) {
+        this.sessions = sessions;
+    }
+
+    @Override
+    public final void handle(HttpExchange exchange) throws IOException {
+        ApiExchange api = new ApiExchange(exchange);
+        try {
+            handle(api);
+        } catch (ApiException e) {
+            api.sendJson(e.getStatus(), Map.of("error", e.getMessage()));
+        } catch (RuntimeException e) {
+            System.err.println("Error atendiendo " + api.getMethod() + " " + exchange.getRequestURI() + ": " + e.getMessage());
+            api.sendJson(500, Map.of("error", "Error interno del servidor"));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    protected abstract void handle(ApiExchange exchange) throws IOException;
+
+    /**
+     * Ejecuta un trabajo con la sesión autenticada del cliente, sin otras peticiones
+     * del mismo cliente en paralelo
+     * @throws ApiException 401 si el token no corresponde a una sesión abierta
+     */
+    protected <T> T withSession(ApiExchange exchange, Function<Session, T> work) {
+        SessionRegistry.Entry entry = sessions.find(exchange.getBearerToken());
+        if (entry == null) {
+            throw ApiException.unauthorized();
+        }
+        return entry.call(session -> {
+            if (!session.isLoggedIn()) {
+                throw ApiException.unauthorized();
+            }
+            return work.apply(session);
+        });
+    }
+}
@@ -0,0 +1,85 @@
+package com.mycompany.shoesunicor.api;
+
+import com.mycompany.shoesunicor.util.SessionRegistry;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Servidor HTTP de la tienda (modo sin interfaz gráfica)
+ *
+ * Usa el servidor HTTP incluido en el JDK y atiende cada petición en un hilo virtual,
+ * así que las esperas (disco, verificación de contraseñas) no ocupan hilos del sistema
+ * y un solo proceso puede atender a muchos compradores a la vez. Comparte los
+ * controladores y repositorios de la aplicación de escritorio; cada cliente tiene su
+ * propia sesión en un SessionRegistry, identificada por el token que devuelve
+ * /api/auth/login y que expira tras un tiempo sin uso.
+ *
+ * Rutas:
+ * - /api/products  catálogo y búsqueda (público)
+ * - /api/auth      login, logout y usuario actual
+ * - /api/cart      carrito de la sesión
+ * - /api/wishlist  lista de deseos
+ * - /api/orders    pedidos y compra del carrito
+ * @author Victor Negrete
+ */
+public class ApiServer {
+    public static final String PORT_PROPERTY = "shoesunicor.api.port";
+    public static final int DEFAULT_PORT = 8080;
+    private static final int BACKLOG = 1024;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final SessionRegistry sessions = new SessionRegistry();
+
+    public ApiServer(int port) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("api-", 0).factory());
+        server.setExecutor(executor);
+
+        server.createContext("/api/products", new CatalogHandler(sessions));
+        server.createContext("/api/auth", new AuthHandler(sessions));
+        server.createContext("/api/cart", new CartHandler(sessions));
+        server.createContext("/api/wishlist", new WishlistHandler(sessions));
+        server.createContext("/api/orders", new OrderHandler(sessions));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Detiene el servidor esperando hasta delaySeconds a que terminen las peticiones en curso
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.close();
+        sessions.close();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public int getOpenSessions() {
+        return sessions.size();
+    }
+
+    /**
+     * Puerto de -Dshoesunicor.api.port, o 8080
+     */
+    public static int configuredPort() {
+        String value = System.getProperty(PORT_PROPERTY);
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                System.err.println("Puerto inválido: " + value + ", usando " + DEFAULT_PORT);
+            }
+        }
+        return DEFAULT_PORT;
+    }
+}
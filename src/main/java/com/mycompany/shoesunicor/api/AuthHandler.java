@@ -0,0 +1,101 @@
+package com.mycompany.shoesunicor.api;
+
+import com.google.gson.JsonObject;
+import com.mycompany.shoesunicor.controller.AuthController;
+import com.mycompany.shoesunicor.model.User;
+import com.mycompany.shoesunicor.util.LoginRateLimiter;
+import com.mycompany.shoesunicor.util.PasswordService;
+import com.mycompany.shoesunicor.util.Session;
+import com.mycompany.shoesunicor.util.SessionRegistry;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Inicio y cierre de sesión
+ * POST /api/auth/login   {"username", "password"} → {"token", "user"}
+ * POST /api/auth/logout  cierra la sesión del token
+ * GET  /api/auth/me      usuario de la sesión
+ * @author Victor Negrete
+ */
+class AuthHandler extends ApiHandler {
+    private final AuthController authController = new AuthController();
+
+    AuthHandler(SessionRegistry sessions) {
+        super(sessions);
+    }
+
+    @Override
+    protected void handle(ApiExchange exchange) throws IOException {
+        String action = exchange.getSubPath();
+        switch (action) {
+            case "login" -> {
+                requireMethod(exchange, "POST");
+                login(exchange);
+            }
+            case "logout" -> {
+                requireMethod(exchange, "POST");
+                SessionRegistry.Entry entry = sessions.remove(exchange.getBearerToken());
+                if (entry != null) {
+                    entry.call(session -> {
+                        authController.logout(session);
+                        return null;
+                    });
+                }
+                exchange.sendNoContent();
+            }
+            case "me" -> {
+                requireMethod(exchange, "GET");
+                exchange.sendJson(200, withSession(exchange, session -> userJson(session.getCurrentUser())));
+            }
+            default -> throw ApiException.notFound("Ruta no encontrada");
+        }
+    }
+
+    private void login(ApiExchange exchange) throws IOException {
+        JsonObject body = exchange.readJsonObject();
+        String username = ApiExchange.requireString(body, "username");
+        String password = ApiExchange.requireString(body, "password");
+
+        Session session = new Session();
+        boolean authenticated;
+        try {
+            authenticated = authController.login(username, password, session);
+        } catch (LoginRateLimiter.ThrottledException e) {
+            exchange.setHeader("Retry-After", String.valueOf(Math.max(1, (e.getRetryAfterMillis() + 999) / 1000)));
+            throw new ApiException(429, "Demasiados intentos, intenta más tarde");
+        } catch (PasswordService.SaturatedException e) {
+            // Sobrecarga pasajera, no un fallo del servidor: el cliente puede reintentar enseguida
+            exchange.setHeader("Retry-After", "1");
+            throw new ApiException(503, "Servidor ocupado, intenta de nuevo en un momento");
+        }
+        if (!authenticated) {
+            throw new ApiException(401, "Usuario o contraseña incorrectos");
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("token", sessions.register(session));
+        response.put("user", userJson(session.getCurrentUser()));
+        exchange.sendJson(200, response);
+    }
+
+    private static void requireMethod(ApiExchange exchange, String method) {
+        if (!method.equals(exchange.getMethod())) {
+            throw ApiException.methodNotAllowed();
+        }
+    }
+
+    /**
+     * Datos públicos del usuario (nunca el hash de la contraseña)
+     */
+    static Map<String, Object> userJson(User user) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", user.getId());
+        json.put("username", user.getUsername());
+        json.put("fullName", user.getFullName());
+        json.put("email", user.getEmail());
+        json.put("role", user.getRole() != null ? user.getRole().name() : null);
+        return json;
+    }
+}
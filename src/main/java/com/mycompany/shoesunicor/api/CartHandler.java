@@ -0,0 +1,131 @@
+package com.mycompany.shoesunicor.api;
+
+import com.google.gson.JsonObject;
+import com.mycompany.shoesunicor.controller.ProductController;
+import com.mycompany.shoesunicor.model.CartItem;
+import com.mycompany.shoesunicor.model.Product;
+import com.mycompany.shoesunicor.util.Session;
+import com.mycompany.shoesunicor.util.SessionRegistry;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carrito de la sesión
+ * GET    /api/cart                  contenido, total y cantidad de artículos
+ * DELETE /api/cart                  vacía el carrito
+ * POST   /api/cart/items            {"productId", "quantity"} agrega (suma si ya estaba)
+ * PUT    /api/cart/items/{id}       {"quantity"} cambia la cantidad
+ * DELETE /api/cart/items/{id}       quita el producto
+ * Todas responden con el carrito resultante.
+ * @author Victor Negrete
+ */
+class CartHandler extends ApiHandler {
+    private static final String ITEMS = "items";
+
+    private final ProductController productController = new ProductController();
+
+    CartHandler(SessionRegistry sessions) {
+        super(sessions);
+    }
+
+    @Override
+    protected void handle(ApiExchange exchange) throws IOException {
+        String path = exchange.getSubPath();
+        String method = exchange.getMethod();
+
+        Map<String, Object> cart;
+        if (path.isEmpty()) {
+            cart = switch (method) {
+                case "GET" -> withSession(exchange, CartHandler::cartJson);
+                case "DELETE" -> withSession(exchange, session -> {
+                    session.clearCart();
+                    return cartJson(session);
+                });
+                default -> throw ApiException.methodNotAllowed();
+            };
+        } else if (path.equals(ITEMS)) {
+            if (!"POST".equals(method)) {
+                throw ApiException.methodNotAllowed();
+            }
+            JsonObject body = exchange.readJsonObject();
+            String productId = ApiExchange.requireString(body, "productId");
+            int quantity = ApiExchange.requireInt(body, "quantity");
+            if (quantity <= 0) {
+                throw ApiException.badRequest("La cantidad debe ser mayor que 0");
+            }
+            cart = withSession(exchange, session -> addItem(session, productId, quantity));
+        } else if (path.startsWith(ITEMS + "/")) {
+            String productId = path.substring(ITEMS.length() + 1);
+            cart = switch (method) {
+                case "PUT" -> {
+                    int quantity = ApiExchange.requireInt(exchange.readJsonObject(), "quantity");
+                    yield withSession(exchange, session -> updateItem(session, productId, quantity));
+                }
+                case "DELETE" -> withSession(exchange, session -> {
+                    CartItem item = requireItem(session, productId);
+                    session.removeFromCart(item);
+                    return cartJson(session);
+                });
+                default -> throw ApiException.methodNotAllowed();
+            };
+        } else {
+            throw ApiException.notFound("Ruta no encontrada");
+        }
+        exchange.sendJson(200, cart);
+    }
+
+    private Map<String, Object> addItem(Session session, String productId, int quantity) {
+        Product product = productController.getProductById(productId);
+        if (product == null || !product.isActive()) {
+            throw ApiException.notFound("Producto no encontrado");
+        }
+        CartItem existing = session.getCartItem(productId);
+        int total = quantity + (existing != null ? existing.getQuantity() : 0);
+        if (total > product.getStock()) {
+            throw ApiException.conflict("Solo hay " + product.getStock() + " unidades disponibles");
+        }
+        session.addToCart(new CartItem(product, quantity));
+        return cartJson(session);
+    }
+
+    private Map<String, Object> updateItem(Session session, String productId, int quantity) {
+        requireItem(session, productId);
+        if (quantity > 0) {
+            Product product = productController.getProductById(productId);
+            if (product == null || quantity > product.getStock()) {
+                int stock = product != null ? product.getStock() : 0;
+                throw ApiException.conflict("Solo hay " + stock + " unidades disponibles");
+            }
+        }
+        session.updateCartQuantity(productId, quantity);
+        return cartJson(session);
+    }
+
+    private static CartItem requireItem(Session session, String productId) {
+        CartItem item = session.getCartItem(productId);
+        if (item == null) {
+            throw ApiException.notFound("El producto no está en el carrito");
+        }
+        return item;
+    }
+
+    /**
+     * Instantánea del carrito (copias de los ítems, se serializa fuera del lock de la sesión)
+     */
+    static Map<String, Object> cartJson(Session session) {
+        List<CartItem> items = new ArrayList<>(session.getCart().size());
+        for (CartItem item : session.getCart()) {
+            items.add(new CartItem(item.getProductId(), item.getProductName(), item.getPrice(),
+                    item.getQuantity(), item.getImagePath()));
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("items", items);
+        json.put("total", session.getCartTotal());
+        json.put("count", session.getCartItemCount());
+        return json;
+    }
+}
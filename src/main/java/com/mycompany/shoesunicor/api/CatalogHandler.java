@@ -0,0 +1,69 @@
+package com.mycompany.shoesunicor.api;
+
+import com.mycompany.shoesunicor.controller.ProductController;
+import com.mycompany.shoesunicor.model.Product;
+import com.mycompany.shoesunicor.util.SessionRegistry;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Catálogo (no requiere sesión)
+ * GET /api/products?q=&category=&offset=&limit=  productos activos, filtrados y paginados
+ * GET /api/products/{id}                        detalle de un producto
+ * @author Victor Negrete
+ */
+class CatalogHandler extends ApiHandler {
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 200;
+
+    private final ProductController productController = new ProductController();
+
+    CatalogHandler(SessionRegistry sessions) {
+        super(sessions);
+    }
+
+    @Override
+    protected void handle(ApiExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getMethod())) {
+            throw ApiException.methodNotAllowed();
+        }
+
+        String productId = exchange.getSubPath();
+        if (!productId.isEmpty()) {
+            Product product = productController.getProductById(productId);
+            if (product == null) {
+                throw ApiException.notFound("Producto no encontrado");
+            }
+            exchange.sendJson(200, product);
+            return;
+        }
+
+        // Con consulta, los resultados vienen ordenados por relevancia
+        String query = exchange.getQueryParam("q");
+        List<Product> products = query != null && !query.isBlank()
+                ? productController.searchProducts(query)
+                : productController.getAllProducts();
+
+        String category = exchange.getQueryParam("category");
+        if (category != null && !category.isBlank()) {
+            products = products.stream()
+                    .filter(p -> category.equalsIgnoreCase(p.getCategory()))
+                    .collect(Collectors.toList());
+        }
+
+        int offset = exchange.getIntQueryParam("offset", 0, 0, Integer.MAX_VALUE);
+        int limit = exchange.getIntQueryParam("limit", DEFAULT_LIMIT, 1, MAX_LIMIT);
+        int from = Math.min(offset, products.size());
+        int to = Math.min(products.size(), from + limit);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("products", products.subList(from, to));
+        body.put("offset", offset);
+        body.put("total", products.size());
+        exchange.sendJson(200, body);
+    }
+}
@@ -0,0 +1,84 @@
+package com.mycompany.shoesunicor.api;
+
+import com.google.gson.JsonObject;
+import com.mycompany.shoesunicor.controller.OrderController;
+import com.mycompany.shoesunicor.model.Order;
+import com.mycompany.shoesunicor.model.User;
+import com.mycompany.shoesunicor.model.UserRole;
+import com.mycompany.shoesunicor.repository.OrderPage;
+import com.mycompany.shoesunicor.repository.OrderQuery;
+import com.mycompany.shoesunicor.util.SessionRegistry;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pedidos del usuario de la sesión
+ * GET  /api/orders?offset=&limit=  pedidos del usuario, del más reciente al más antiguo
+ * GET  /api/orders/{id}            detalle de un pedido propio
+ * POST /api/orders                 {"shippingAddress"} compra el carrito de la sesión
+ * @author Victor Negrete
+ */
+class OrderHandler extends ApiHandler {
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 100;
+
+    private final OrderController orderController = new OrderController();
+
+    OrderHandler(SessionRegistry sessions) {
+        super(sessions);
+    }
+
+    @Override
+    protected void handle(ApiExchange exchange) throws IOException {
+        String orderId = exchange.getSubPath();
+        String method = exchange.getMethod();
+
+        if (!orderId.isEmpty()) {
+            if (!"GET".equals(method)) {
+                throw ApiException.methodNotAllowed();
+            }
+            User user = withSession(exchange, session -> session.getCurrentUser());
+            Order order = orderController.getOrderById(orderId);
+            if (order == null || (user.getRole() != UserRole.ADMIN && !user.getId().equals(order.getUserId()))) {
+                throw ApiException.notFound("Pedido no encontrado");
+            }
+            exchange.sendJson(200, order);
+            return;
+        }
+
+        switch (method) {
+            case "GET" -> {
+                int offset = exchange.getIntQueryParam("offset", 0, 0, Integer.MAX_VALUE);
+                int limit = exchange.getIntQueryParam("limit", DEFAULT_LIMIT, 1, MAX_LIMIT);
+                User user = withSession(exchange, session -> session.getCurrentUser());
+                OrderPage page = orderController.findOrders(new OrderQuery().forUser(user.getId()).page(offset, limit));
+
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("orders", page.getOrders());
+                body.put("offset", page.getOffset());
+                body.put("total", page.getTotalCount());
+                body.put("hasMore", page.hasMore());
+                exchange.sendJson(200, body);
+            }
+            case "POST" -> {
+                JsonObject body = exchange.readJsonObject();
+                String address = ApiExchange.requireString(body, "shippingAddress");
+                Order order = withSession(exchange, session -> {
+                    if (session.getCart().isEmpty()) {
+                        throw ApiException.badRequest("El carrito está vacío");
+                    }
+                    // Un error de escritura no se captura aquí: ApiHandler responde 500
+                    try {
+                        return orderController.placeOrder(session, address);
+                    } catch (OrderController.OutOfStockException e) {
+                        throw ApiException.conflict(e.getMessage());
+                    }
+                });
+                exchange.sendJson(201, order);
+            }
+            default -> throw ApiException.methodNotAllowed();
+        }
+    }
+}
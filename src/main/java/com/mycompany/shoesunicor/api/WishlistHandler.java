@@ -0,0 +1,64 @@
+package com.mycompany.shoesunicor.api;
+
+import com.mycompany.shoesunicor.controller.ProductController;
+import com.mycompany.shoesunicor.controller.UserController;
+import com.mycompany.shoesunicor.model.Product;
+import com.mycompany.shoesunicor.util.SessionRegistry;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lista de deseos del usuario de la sesión
+ * GET    /api/wishlist       productos de la lista
+ * PUT    /api/wishlist/{id}  agrega un producto
+ * DELETE /api/wishlist/{id}  quita un producto
+ * @author Victor Negrete
+ */
+class WishlistHandler extends ApiHandler {
+    private final UserController userController = new UserController();
+    private final ProductController productController = new ProductController();
+
+    WishlistHandler(SessionRegistry sessions) {
+        super(sessions);
+    }
+
+    @Override
+    protected void handle(ApiExchange exchange) throws IOException {
+        String productId = exchange.getSubPath();
+        String method = exchange.getMethod();
+
+        if (productId.isEmpty()) {
+            if (!"GET".equals(method)) {
+                throw ApiException.methodNotAllowed();
+            }
+            List<String> ids = withSession(exchange, userController::getWishlistProductIds);
+            List<Product> products = new ArrayList<>(ids.size());
+            for (String id : ids) {
+                Product product = productController.getProductById(id);
+                if (product != null) {
+                    products.add(product);
+                }
+            }
+            exchange.sendJson(200, Map.of("products", products));
+            return;
+        }
+
+        boolean updated = switch (method) {
+            case "PUT" -> {
+                if (productController.getProductById(productId) == null) {
+                    throw ApiException.notFound("Producto no encontrado");
+                }
+                yield withSession(exchange, session -> userController.addToWishlist(session, productId));
+            }
+            case "DELETE" -> withSession(exchange, session -> userController.removeFromWishlist(session, productId));
+            default -> throw ApiException.methodNotAllowed();
+        };
+        if (!updated) {
+            throw new ApiException(500, "No se pudo actualizar la lista de deseos");
+        }
+        exchange.sendNoContent();
+    }
+}
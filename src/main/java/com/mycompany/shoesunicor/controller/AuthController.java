@@ -2,70 +2,159 @@ package com.mycompany.shoesunicor.controller;
 
 import com.mycompany.shoesunicor.model.User;
 import com.mycompany.shoesunicor.model.UserRole;
+import com.mycompany.shoesunicor.repository.UserRepository;
 import com.mycompany.shoesunicor.util.JsonDatabase;
-import com.mycompany.shoesunicor.util.PasswordUtil;
+import com.mycompany.shoesunicor.util.LoginRateLimiter;
+import com.mycompany.shoesunicor.util.PasswordService;
 import com.mycompany.shoesunicor.util.Session;
 
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Controlador de autenticación
  * @author Victor Negrete
  */
 public class AuthController {
+    private UserRepository userRepository;
+    private PasswordService passwordService;
+    private LoginRateLimiter rateLimiter;
+
+    public AuthController() {
+        this.userRepository = UserRepository.getInstance();
+        this.passwordService = PasswordService.getInstance();
+        this.rateLimiter = LoginRateLimiter.getInstance();
+    }
 
     /**
      * Intenta iniciar sesión con las credenciales proporcionadas
      * El nombre de usuario es case-insensitive (no distingue mayúsculas/minúsculas)
+     * Espera a que el pool de hash verifique la contraseña; desde la interfaz usar authenticateAsync()
+     * @throws LoginRateLimiter.ThrottledException si se superó el límite de intentos
      */
     public boolean login(String username, String password) {
-        List<User> users = JsonDatabase.loadUsers();
-
-        for (User user : users) {
-            // Comparación case-insensitive para el username
-            if (user.getUsername().equalsIgnoreCase(username) &&
-                    PasswordUtil.verifyPassword(password, user.getPassword())) {
-                Session.getInstance().login(user);
-                return true;
+        return login(username, password, Session.getInstance());
+    }
+
+    /**
+     * Inicia sesión en una sesión explícita (por ejemplo, la de un cliente del servidor HTTP)
+     * Bloquea al hilo que llama mientras se verifica la contraseña; pensado para hilos virtuales.
+     * @throws LoginRateLimiter.ThrottledException si se superó el límite de intentos
+     * @throws PasswordService.SaturatedException si el pool de hash está saturado
+     */
+    public boolean login(String username, String password, Session session) {
+        User user;
+        try {
+            user = authenticateAsync(username, password).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
+            throw e;
+        }
+        if (user != null) {
+            session.login(user);
+            return true;
         }
 
         return false;
     }
 
+    /**
+     * Verifica las credenciales en el pool de hash de contraseñas
+     * El futuro entrega el usuario autenticado, o null si las credenciales no coinciden;
+     * la sesión se abre después con startSession() desde el hilo de JavaFX.
+     * Si se superó el límite de intentos, el futuro falla con LoginRateLimiter.ThrottledException
+     * sin llegar a calcular ningún hash.
+     */
+    public CompletableFuture<User> authenticateAsync(String username, String password) {
+        long retryAfter = rateLimiter.tryAcquire(username);
+        if (retryAfter > 0) {
+            return CompletableFuture.failedFuture(new LoginRateLimiter.ThrottledException(retryAfter));
+        }
+        return passwordService.submit(() -> authenticate(username, password));
+    }
+
+    /**
+     * Abre la sesión de un usuario ya autenticado
+     */
+    public void startSession(User user) {
+        Session.getInstance().login(user);
+    }
+
+    /**
+     * Verifica las credenciales; si el hash guardado es heredado (SHA-256) o de menor
+     * costo que el configurado, lo reemplaza aprovechando que se conoce la contraseña
+     */
+    private User authenticate(String username, String password) {
+        // Índice hash case-insensitive: una sola verificación de contraseña
+        User user = userRepository.findByUsername(username);
+        if (user == null) {
+            passwordService.verify(password, null); // Mismo costo que un usuario existente
+            return null;
+        }
+        if (!passwordService.verify(password, user.getPassword())) {
+            return null;
+        }
+
+        rateLimiter.onSuccess(username);
+
+        if (passwordService.needsRehash(user.getPassword())) {
+            String verifiedHash = user.getPassword();
+            String rehashed = passwordService.hash(password);
+            try {
+                // Solo si nadie cambió la contraseña desde que se verificó
+                User updated = userRepository.update(user.getId(), current -> {
+                    if (verifiedHash.equals(current.getPassword())) {
+                        current.setPassword(rehashed);
+                    }
+                });
+                if (updated != null) {
+                    user = updated;
+                }
+            } catch (RuntimeException e) {
+                // La contraseña ya se verificó: el hash nuevo se reintenta en el próximo login
+                System.err.println("No se pudo actualizar el hash de contraseña: " + e.getMessage());
+            }
+        }
+        return user;
+    }
+
     /**
      * Registra un nuevo usuario
      * El nombre de usuario es case-insensitive para evitar duplicados
      */
     public boolean register(String username, String password, String email, String fullName) {
-        List<User> users = JsonDatabase.loadUsers();
-
-        // Verificar si el usuario ya existe (case-insensitive)
-        for (User user : users) {
-            if (user.getUsername().equalsIgnoreCase(username)) {
-                return false; // Usuario ya existe
-            }
-            if (user.getEmail().equalsIgnoreCase(email)) {
-                return false; // Email ya registrado
-            }
+        // Verificar si el usuario o el email ya existen (case-insensitive)
+        if (userRepository.findByUsername(username) != null || userRepository.findByEmail(email) != null) {
+            return false;
         }
 
         // Crear nuevo usuario
         String userId = JsonDatabase.generateId("USR");
-        String hashedPassword = PasswordUtil.hashPassword(password);
+        String hashedPassword = passwordService.hash(password);
         User newUser = new User(userId, username, hashedPassword, email, fullName, UserRole.USER);
 
-        users.add(newUser);
-        JsonDatabase.saveUsers(users);
+        // Se vuelve a verificar al guardar por si otro registro ganó la carrera
+        return userRepository.saveIfUnique(newUser);
+    }
 
-        return true;
+    /**
+     * Registra un nuevo usuario en el pool de hash de contraseñas (para llamar desde la interfaz)
+     */
+    public CompletableFuture<Boolean> registerAsync(String username, String password, String email, String fullName) {
+        return passwordService.submit(() -> register(username, password, email, fullName));
     }
 
     /**
      * Cierra la sesión actual
      */
     public void logout() {
-        Session.getInstance().logout();
+        logout(Session.getInstance());
+    }
+
+    public void logout(Session session) {
+        session.logout();
     }
 
     /**
@@ -86,7 +175,6 @@ public class AuthController {
      * Verifica si un nombre de usuario está disponible (case-insensitive)
      */
     public boolean isUsernameAvailable(String username) {
-        List<User> users = JsonDatabase.loadUsers();
-        return users.stream().noneMatch(u -> u.getUsername().equalsIgnoreCase(username));
+        return userRepository.findByUsername(username) == null;
     }
 }
@@ -4,21 +4,32 @@ import com.mycompany.shoesunicor.model.CartItem;
 import com.mycompany.shoesunicor.model.Order;
 import com.mycompany.shoesunicor.model.OrderStatus;
 import com.mycompany.shoesunicor.model.User;
+import com.mycompany.shoesunicor.repository.OrderPage;
+import com.mycompany.shoesunicor.repository.OrderQuery;
+import com.mycompany.shoesunicor.repository.OrderRepository;
+import com.mycompany.shoesunicor.repository.ProductRepository;
+import com.mycompany.shoesunicor.repository.StockReservation;
+import com.mycompany.shoesunicor.repository.UserRepository;
 import com.mycompany.shoesunicor.util.JsonDatabase;
 import com.mycompany.shoesunicor.util.Session;
 
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * Controlador de órdenes/pedidos
  * @author Victor Negrete
  */
 public class OrderController {
-    private ProductController productController;
+    private ProductRepository productRepository;
+    private OrderRepository orderRepository;
+    private UserRepository userRepository;
 
     public OrderController() {
-        this.productController = new ProductController();
+        this.productRepository = ProductRepository.getInstance();
+        this.orderRepository = OrderRepository.getInstance();
+        this.userRepository = UserRepository.getInstance();
     }
 
     /**
@@ -26,75 +37,101 @@ public class OrderController {
      */
     public boolean createOrder(String shippingAddress) {
         try {
-            Session session = Session.getInstance();
-            User currentUser = session.getCurrentUser();
+            return placeOrder(Session.getInstance(), shippingAddress) != null;
+        } catch (OutOfStockException e) {
+            return false;
+        } catch (RuntimeException e) {
+            System.err.println("Error creando orden: " + e.getMessage());
+            return false;
+        }
+    }
 
-            if (currentUser == null || session.getCart().isEmpty()) {
-                return false;
-            }
+    /**
+     * Crea una orden desde el carrito de una sesión explícita
+     * Devuelve la orden creada, o null si no hay usuario o el carrito está vacío
+     * @throws OutOfStockException si algún producto no tiene stock suficiente (no se reserva nada)
+     * @throws java.io.UncheckedIOException si no se pudo escribir en disco (el stock reservado se devuelve)
+     */
+    public Order placeOrder(Session session, String shippingAddress) {
+        User currentUser = session.getCurrentUser();
 
-            // Verificar stock disponible
-            for (CartItem item : session.getCart()) {
-                if (!productController.reduceStock(item.getProductId(), item.getQuantity())) {
-                    return false; // Stock insuficiente
-                }
-            }
+        if (currentUser == null || session.getCart().isEmpty()) {
+            return null;
+        }
 
-            // Crear la orden
-            String orderId = JsonDatabase.generateId("ORD");
-            Order order = new Order(
-                    orderId,
-                    currentUser.getId(),
-                    currentUser.getUsername(),
-                    session.getCart(),
-                    session.getCartTotal(),
-                    shippingAddress
-            );
+        // Reservar el stock de todo el carrito (todo o nada)
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (CartItem item : session.getCart()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        StockReservation reservation = productRepository.reserveStock(quantities);
+        if (reservation == null) {
+            throw new OutOfStockException();
+        }
 
-            // Guardar la orden
-            JsonDatabase.saveOrder(order);
+        // Crear la orden
+        String orderId = JsonDatabase.generateId("ORD");
+        Order order = new Order(
+                orderId,
+                currentUser.getId(),
+                currentUser.getUsername(),
+                session.getCart(),
+                session.getCartTotal(),
+                shippingAddress
+        );
+
+        // Guardar la orden; si falla se devuelve el stock reservado
+        try {
+            orderRepository.save(order);
+        } catch (RuntimeException e) {
+            try {
+                productRepository.releaseStock(reservation);
+            } catch (RuntimeException releaseError) {
+                e.addSuppressed(releaseError);
+            }
+            throw e;
+        }
 
-            // Agregar ID de orden al usuario
-            currentUser.getOrderIds().add(orderId);
-            JsonDatabase.saveUser(currentUser);
+        // Agregar ID de orden al usuario; la orden ya está guardada y se consulta por el
+        // índice de usuario, así que un fallo aquí no deshace la compra
+        try {
+            userRepository.update(currentUser.getId(), user -> user.getOrderIds().add(orderId));
+        } catch (RuntimeException e) {
+            System.err.println("No se pudo registrar la orden " + orderId + " en el usuario: " + e.getMessage());
+        }
 
-            // Limpiar el carrito
-            session.clearCart();
+        // Limpiar el carrito
+        session.clearCart();
 
-            return true;
-        } catch (Exception e) {
-            System.err.println("Error creando orden: " + e.getMessage());
-            return false;
-        }
+        return order;
     }
 
     /**
      * Obtiene todas las órdenes de un usuario
      */
     public List<Order> getUserOrders(String userId) {
-        return JsonDatabase.loadOrders().stream()
-                .filter(o -> o.getUserId().equals(userId))
-                .sorted((o1, o2) -> o2.getOrderDate().compareTo(o1.getOrderDate()))
-                .collect(Collectors.toList());
+        return orderRepository.query(new OrderQuery().forUser(userId)).getOrders();
     }
 
     /**
      * Obtiene todas las órdenes (admin)
      */
     public List<Order> getAllOrders() {
-        return JsonDatabase.loadOrders().stream()
-                .sorted((o1, o2) -> o2.getOrderDate().compareTo(o1.getOrderDate()))
-                .collect(Collectors.toList());
+        return orderRepository.query(new OrderQuery()).getOrders();
+    }
+
+    /**
+     * Busca órdenes por usuario, estado y rango de fechas, paginadas y de la más reciente a la más antigua
+     */
+    public OrderPage findOrders(OrderQuery query) {
+        return orderRepository.query(query);
     }
 
     /**
      * Obtiene una orden por ID
      */
     public Order getOrderById(String orderId) {
-        return JsonDatabase.loadOrders().stream()
-                .filter(o -> o.getId().equals(orderId))
-                .findFirst()
-                .orElse(null);
+        return orderRepository.findById(orderId);
     }
 
     /**
@@ -102,13 +139,7 @@ public class OrderController {
      */
     public boolean updateOrderStatus(String orderId, OrderStatus newStatus) {
         try {
-            Order order = getOrderById(orderId);
-            if (order != null) {
-                order.setStatus(newStatus);
-                JsonDatabase.saveOrder(order);
-                return true;
-            }
-            return false;
+            return orderRepository.update(orderId, order -> order.setStatus(newStatus)) != null;
         } catch (Exception e) {
             System.err.println("Error actualizando estado de orden: " + e.getMessage());
             return false;
@@ -121,5 +152,13 @@ public class OrderController {
     public boolean cancelOrder(String orderId) {
         return updateOrderStatus(orderId, OrderStatus.CANCELLED);
     }
-}
 
+    /**
+     * Compra rechazada porque algún producto del carrito no tiene stock suficiente
+     */
+    public static class OutOfStockException extends RuntimeException {
+        public OutOfStockException() {
+            super("No hay stock suficiente para completar el pedido");
+        }
+    }
+}
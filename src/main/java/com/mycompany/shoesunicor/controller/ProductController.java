@@ -1,9 +1,12 @@
 package com.mycompany.shoesunicor.controller;
 
 import com.mycompany.shoesunicor.model.Product;
+import com.mycompany.shoesunicor.repository.ProductRepository;
 import com.mycompany.shoesunicor.util.JsonDatabase;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -11,12 +14,17 @@ import java.util.stream.Collectors;
  * @author Victor Negrete
  */
 public class ProductController {
+    private ProductRepository productRepository;
+
+    public ProductController() {
+        this.productRepository = ProductRepository.getInstance();
+    }
 
     /**
      * Obtiene todos los productos activos
      */
     public List<Product> getAllProducts() {
-        return JsonDatabase.loadProducts().stream()
+        return productRepository.findAll().stream()
                 .filter(Product::isActive)
                 .collect(Collectors.toList());
     }
@@ -26,37 +34,40 @@ public class ProductController {
      * Incluye activos y los sin stock (para mostrar "Sin Stock")
      */
     public List<Product> getAllProductsForCatalog() {
-        return JsonDatabase.loadProducts();
+        return productRepository.findAll();
     }
 
     /**
      * Obtiene todos los productos (incluidos inactivos) - solo admin
      */
     public List<Product> getAllProductsAdmin() {
-        return JsonDatabase.loadProducts();
+        return productRepository.findAll();
     }
 
     /**
      * Busca un producto por ID
      */
     public Product getProductById(String id) {
-        return JsonDatabase.loadProducts().stream()
-                .filter(p -> p.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        return productRepository.findById(id);
     }
 
     /**
-     * Busca productos por nombre
+     * Busca productos activos por nombre, marca, categoría o descripción
+     * Los resultados vienen ordenados por relevancia
      */
     public List<Product> searchProducts(String searchTerm) {
-        String lowerSearch = searchTerm.toLowerCase();
-        return getAllProducts().stream()
-                .filter(p -> p.getName().toLowerCase().contains(lowerSearch) ||
-                        p.getDescription().toLowerCase().contains(lowerSearch))
+        return productRepository.search(searchTerm).stream()
+                .filter(Product::isActive)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Busca en el catálogo completo (incluye productos sin stock), ordenado por relevancia
+     */
+    public List<Product> searchCatalog(String searchTerm) {
+        return productRepository.search(searchTerm);
+    }
+
     /**
      * Filtra productos por categoría
      */
@@ -72,7 +83,7 @@ public class ProductController {
     public boolean addProduct(Product product) {
         try {
             product.setId(JsonDatabase.generateId("PROD"));
-            JsonDatabase.saveProduct(product);
+            productRepository.save(product);
             return true;
         } catch (Exception e) {
             System.err.println("Error agregando producto: " + e.getMessage());
@@ -82,16 +93,18 @@ public class ProductController {
 
     /**
      * Actualiza un producto existente (admin)
-     * Si el stock es 0, el producto se desactiva automáticamente
+     * Los cambios se aplican sobre la versión vigente del producto, no sobre una copia
+     * que pudo quedar obsoleta. Si el stock queda en 0, el producto se desactiva automáticamente
      */
-    public boolean updateProduct(Product product) {
+    public boolean updateProduct(String productId, Consumer<Product> changes) {
         try {
-            // Desactivar automáticamente si stock = 0
-            if (product.getStock() == 0) {
-                product.setActive(false);
-            }
-            JsonDatabase.saveProduct(product);
-            return true;
+            return productRepository.update(productId, product -> {
+                changes.accept(product);
+                // Desactivar automáticamente si stock = 0
+                if (product.getStock() == 0) {
+                    product.setActive(false);
+                }
+            }) != null;
         } catch (Exception e) {
             System.err.println("Error actualizando producto: " + e.getMessage());
             return false;
@@ -103,13 +116,7 @@ public class ProductController {
      */
     public boolean deleteProduct(String productId) {
         try {
-            Product product = getProductById(productId);
-            if (product != null) {
-                product.setActive(false);
-                JsonDatabase.saveProduct(product);
-                return true;
-            }
-            return false;
+            return productRepository.update(productId, product -> product.setActive(false)) != null;
         } catch (Exception e) {
             System.err.println("Error eliminando producto: " + e.getMessage());
             return false;
@@ -123,17 +130,7 @@ public class ProductController {
      */
     public boolean toggleProductStatus(String productId, boolean newStatus) {
         try {
-            Product product = getProductById(productId);
-            if (product != null) {
-                // No permitir activar si no hay stock
-                if (newStatus && product.getStock() == 0) {
-                    return false;
-                }
-                product.setActive(newStatus);
-                JsonDatabase.saveProduct(product);
-                return true;
-            }
-            return false;
+            return productRepository.setActive(productId, newStatus);
         } catch (Exception e) {
             System.err.println("Error cambiando estado del producto: " + e.getMessage());
             return false;
@@ -146,17 +143,7 @@ public class ProductController {
      */
     public boolean updateStock(String productId, int newStock) {
         try {
-            Product product = getProductById(productId);
-            if (product != null) {
-                product.setStock(newStock);
-                // Desactivar automáticamente si stock = 0
-                if (newStock == 0) {
-                    product.setActive(false);
-                }
-                JsonDatabase.saveProduct(product);
-                return true;
-            }
-            return false;
+            return productRepository.updateStock(productId, newStock);
         } catch (Exception e) {
             System.err.println("Error actualizando stock: " + e.getMessage());
             return false;
@@ -167,10 +154,6 @@ public class ProductController {
      * Reduce el stock después de una compra
      */
     public boolean reduceStock(String productId, int quantity) {
-        Product product = getProductById(productId);
-        if (product != null && product.getStock() >= quantity) {
-            return updateStock(productId, product.getStock() - quantity);
-        }
-        return false;
+        return productRepository.reserveStock(Map.of(productId, quantity)) != null;
     }
 }
@@ -1,7 +1,7 @@
 package com.mycompany.shoesunicor.controller;
 
 import com.mycompany.shoesunicor.model.User;
-import com.mycompany.shoesunicor.util.JsonDatabase;
+import com.mycompany.shoesunicor.repository.UserRepository;
 import com.mycompany.shoesunicor.util.Session;
 
 import java.util.List;
@@ -11,36 +11,44 @@ import java.util.List;
  * @author Victor Negrete
  */
 public class UserController {
+    private UserRepository userRepository;
+
+    public UserController() {
+        this.userRepository = UserRepository.getInstance();
+    }
 
     /**
      * Obtiene todos los usuarios (admin)
      */
     public List<User> getAllUsers() {
-        return JsonDatabase.loadUsers();
+        return userRepository.findAll();
     }
 
     /**
      * Obtiene un usuario por ID
      */
     public User getUserById(String userId) {
-        return JsonDatabase.loadUsers().stream()
-                .filter(u -> u.getId().equals(userId))
-                .findFirst()
-                .orElse(null);
+        return userRepository.findById(userId);
     }
 
     /**
      * Agrega un producto a la wishlist del usuario actual
      */
     public boolean addToWishlist(String productId) {
+        return addToWishlist(Session.getInstance(), productId);
+    }
+
+    /**
+     * Agrega un producto a la wishlist del usuario de una sesión explícita
+     */
+    public boolean addToWishlist(Session session, String productId) {
         try {
-            User currentUser = Session.getInstance().getCurrentUser();
+            User currentUser = session.getCurrentUser();
             if (currentUser == null) return false;
 
-            currentUser.addToWishlist(productId);
-            JsonDatabase.saveUser(currentUser);
-            Session.getInstance().setCurrentUser(currentUser);
-            return true;
+            // Se modifica el usuario vigente por ID: otra sesión del mismo usuario u otro
+            // proceso pudo cambiarlo desde que esta sesión lo leyó
+            return userRepository.update(currentUser.getId(), user -> user.addToWishlist(productId)) != null;
         } catch (Exception e) {
             System.err.println("Error agregando a wishlist: " + e.getMessage());
             return false;
@@ -51,14 +59,18 @@ public class UserController {
      * Elimina un producto de la wishlist del usuario actual
      */
     public boolean removeFromWishlist(String productId) {
+        return removeFromWishlist(Session.getInstance(), productId);
+    }
+
+    /**
+     * Elimina un producto de la wishlist del usuario de una sesión explícita
+     */
+    public boolean removeFromWishlist(Session session, String productId) {
         try {
-            User currentUser = Session.getInstance().getCurrentUser();
+            User currentUser = session.getCurrentUser();
             if (currentUser == null) return false;
 
-            currentUser.removeFromWishlist(productId);
-            JsonDatabase.saveUser(currentUser);
-            Session.getInstance().setCurrentUser(currentUser);
-            return true;
+            return userRepository.update(currentUser.getId(), user -> user.removeFromWishlist(productId)) != null;
         } catch (Exception e) {
             System.err.println("Error eliminando de wishlist: " + e.getMessage());
             return false;
@@ -69,16 +81,29 @@ public class UserController {
      * Verifica si un producto está en la wishlist
      */
     public boolean isInWishlist(String productId) {
-        User currentUser = Session.getInstance().getCurrentUser();
-        return currentUser != null && currentUser.isInWishlist(productId);
+        return isInWishlist(Session.getInstance(), productId);
+    }
+
+    public boolean isInWishlist(Session session, String productId) {
+        User currentUser = session.getCurrentUser();
+        return currentUser != null
+                && Boolean.TRUE.equals(userRepository.read(currentUser.getId(), user -> user.isInWishlist(productId)));
     }
 
     /**
      * Obtiene los productos de la wishlist del usuario actual
      */
     public List<String> getWishlistProductIds() {
-        User currentUser = Session.getInstance().getCurrentUser();
-        return currentUser != null ? currentUser.getWishlistProductIds() : List.of();
+        return getWishlistProductIds(Session.getInstance());
+    }
+
+    public List<String> getWishlistProductIds(Session session) {
+        User currentUser = session.getCurrentUser();
+        if (currentUser == null) {
+            return List.of();
+        }
+        List<String> ids = userRepository.read(currentUser.getId(), user -> List.copyOf(user.getWishlistProductIds()));
+        return ids != null ? ids : List.of();
     }
 
     /**
@@ -86,7 +111,7 @@ public class UserController {
      */
     public boolean updateUser(User user) {
         try {
-            JsonDatabase.saveUser(user);
+            userRepository.save(user);
 
             // Si es el usuario actual, actualizar en sesión
             User currentUser = Session.getInstance().getCurrentUser();
@@ -0,0 +1,324 @@
+package com.mycompany.shoesunicor.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Repositorio genérico en memoria con persistencia write-through
+ * Carga la colección una sola vez, atiende las lecturas desde un mapa
+ * indexado por ID y escribe cada cambio inmediatamente en disco
+ *
+ * Concurrencia: cada repositorio tiene sus propios locks, no hay un lock global.
+ * El mapa y los índices secundarios se protegen con un StampedLock: findById,
+ * existsById y count son lecturas optimistas que no bloquean ni escriben memoria
+ * compartida, y solo se repiten con lock de lectura si coincidieron con una escritura.
+ * Las escrituras se serializan con un segundo lock que cubre también la escritura en
+ * disco, para que el log quede en el mismo orden que la memoria; el lock de escritura
+ * del mapa se toma solo para actualizarlo, así las lecturas nunca esperan al disco.
+ *
+ * Otros procesos pueden escribir la misma colección. Cada escritura corre como una
+ * transacción con el lock de la colección en disco tomado: si la versión en disco
+ * cambió desde la última carga, primero se recarga, y luego se lee, modifica y
+ * guarda sin que otro proceso se intercale. findAll también recarga, solo si la
+ * versión cambió; el resto de las lecturas usa lo que hay en memoria.
+ *
+ * Una recarga reemplaza las instancias: quien guardó una entidad leída antes no debe
+ * modificarla y volver a guardarla, sino usar update, que la busca de nuevo por ID
+ * dentro de la transacción y aplica el cambio sobre la instancia vigente.
+ * @author Victor Negrete
+ */
+public abstract class InMemoryRepository<T> {
+    private final StampedLock lock = new StampedLock();
+    private final ReentrantLock writerLock = new ReentrantLock();
+    private Map<String, T> entities = new LinkedHashMap<>();
+    /** Versión en disco con la que coincide el contenido en memoria */
+    private volatile long loadedVersion = -1;
+
+    /**
+     * Obtiene el ID de una entidad
+     */
+    protected abstract String getId(T entity);
+
+    /**
+     * Lee la colección completa desde el almacenamiento; null si no se pudo leer
+     */
+    protected abstract List<T> loadFromStorage();
+
+    /**
+     * Registra en el almacenamiento los cambios de las entidades con una sola escritura
+     */
+    protected abstract void appendToStorage(List<T> changed);
+
+    /**
+     * Versión actual de la colección en disco
+     */
+    protected abstract long storageVersion();
+
+    /**
+     * Ejecuta un trabajo con la colección bloqueada en disco frente a otros procesos
+     */
+    protected abstract <R> R lockStorage(Supplier<R> work);
+
+    /**
+     * Se invoca tras recargar la colección; permite reconstruir índices secundarios
+     * Corre bajo el lock de escritura: no debe llamar a otros métodos del repositorio.
+     */
+    protected void onReloaded(Collection<T> all) {
+    }
+
+    /**
+     * Se invoca tras guardar entidades; permite actualizar índices secundarios
+     * Corre bajo el lock de escritura: no debe llamar a otros métodos del repositorio.
+     */
+    protected void onSaved(Collection<T> changed) {
+    }
+
+    /**
+     * Recarga la colección desde disco reemplazando el contenido en memoria
+     * La lectura del disco ocurre fuera del lock del mapa: las consultas siguen
+     * atendiéndose con la colección anterior hasta el reemplazo, que es atómico.
+     * Si el archivo no se puede leer (por ejemplo, a medio copiar) se conserva lo que había.
+     */
+    public void reload() {
+        writerLock.lock();
+        try {
+            reloadLocked();
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Recarga la colección solo si otro proceso la modificó desde la última carga
+     * @return true si se recargó
+     */
+    public boolean refreshIfChanged() {
+        if (storageVersion() == loadedVersion) {
+            return false;
+        }
+        writerLock.lock();
+        try {
+            if (storageVersion() == loadedVersion) {
+                return false;
+            }
+            return reloadLocked();
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    private boolean reloadLocked() {
+        // La versión se lee antes que los datos: si cambia en medio, la próxima comparación recarga de nuevo
+        long version = storageVersion();
+        List<T> stored = loadFromStorage();
+        if (stored == null) {
+            System.err.println("No se pudo recargar " + getClass().getSimpleName() + ", se conservan los datos en memoria");
+            return false;
+        }
+        Map<String, T> loaded = new LinkedHashMap<>();
+        for (T entity : stored) {
+            loaded.put(getId(entity), entity);
+        }
+        long stamp = lock.writeLock();
+        try {
+            entities = loaded;
+            onReloaded(loaded.values());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        loadedVersion = version;
+        return true;
+    }
+
+    public List<T> findAll() {
+        refreshIfChanged();
+        long stamp = lock.readLock();
+        try {
+            return new ArrayList<>(entities.values());
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public T findById(String id) {
+        if (id == null) {
+            return null;
+        }
+        return optimisticRead(() -> entities.get(id));
+    }
+
+    public boolean existsById(String id) {
+        return id != null && optimisticRead(() -> entities.containsKey(id));
+    }
+
+    public int count() {
+        return optimisticRead(() -> entities.size());
+    }
+
+    /**
+     * Inserta o reemplaza una entidad y persiste el cambio
+     */
+    public void save(T entity) {
+        saveAll(List.of(entity));
+    }
+
+    /**
+     * Inserta o reemplaza varias entidades con una sola escritura en disco
+     * Si la escritura falla, la colección en memoria se recarga desde disco y la
+     * excepción se propaga: nada queda en memoria sin estar guardado.
+     */
+    public void saveAll(Collection<T> newEntities) {
+        if (newEntities.isEmpty()) {
+            return;
+        }
+        List<T> changed = new ArrayList<>(newEntities);
+        writeTransaction(() -> {
+            applyAndPersist(changed, () -> { });
+            return null;
+        });
+    }
+
+    /**
+     * Modifica la entidad vigente con ese ID y persiste el cambio en una transacción
+     * La entidad se vuelve a buscar después de tomar el lock de la colección (y de
+     * recargar si otro proceso la cambió), así el cambio nunca se aplica sobre una
+     * instancia que una recarga dejó obsoleta. El cambio corre bajo el lock de
+     * escritura: no debe llamar a otros métodos del repositorio.
+     * @return la entidad modificada, o null si no existe
+     */
+    public T update(String id, Consumer<T> change) {
+        if (id == null) {
+            return null;
+        }
+        return writeTransaction(() -> {
+            T entity = findById(id);
+            if (entity == null) {
+                return null;
+            }
+            applyAndPersist(List.of(entity), () -> change.accept(entity));
+            return entity;
+        });
+    }
+
+    /**
+     * Aplica un cambio sobre varias entidades y lo persiste con una sola escritura
+     * Debe llamarse dentro de writeTransaction, con entidades leídas en esa misma
+     * transacción. El cambio corre bajo el lock de escritura: no debe llamar a otros
+     * métodos del repositorio. Si el cambio o la escritura fallan, la colección se
+     * recarga desde disco y la excepción se propaga.
+     */
+    protected void updateAll(List<T> current, Runnable change) {
+        if (!writerLock.isHeldByCurrentThread()) {
+            throw new IllegalStateException("updateAll debe llamarse dentro de writeTransaction");
+        }
+        if (!current.isEmpty()) {
+            applyAndPersist(current, change);
+        }
+    }
+
+    /**
+     * Consulta la entidad vigente con ese ID bajo lock de lectura, sin competir con
+     * un update que la esté modificando
+     * @return el resultado de la consulta, o null si la entidad no existe
+     */
+    public <R> R read(String id, Function<T, R> query) {
+        if (id == null) {
+            return null;
+        }
+        return withReadLock(() -> {
+            T entity = entities.get(id);
+            return entity != null ? query.apply(entity) : null;
+        });
+    }
+
+    /**
+     * Ejecuta una consulta sobre los índices secundarios con lock de lectura
+     * Varias consultas corren en paralelo; solo esperan mientras se actualiza el mapa.
+     */
+    protected <R> R withReadLock(Supplier<R> query) {
+        long stamp = lock.readLock();
+        try {
+            return query.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Aplica un cambio en memoria y lo registra en disco; se invoca dentro de una transacción
+     * Si el cambio o la escritura fallan, la colección en memoria se recarga desde
+     * disco y la excepción se propaga.
+     */
+    private void applyAndPersist(List<T> changed, Runnable change) {
+        try {
+            long stamp = lock.writeLock();
+            try {
+                change.run();
+                for (T entity : changed) {
+                    entities.put(getId(entity), entity);
+                }
+                onSaved(changed);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            appendToStorage(changed);
+        } catch (RuntimeException e) {
+            // El cambio pudo quedar en memoria: se vuelve a lo que quedó en disco
+            reloadLocked();
+            throw e;
+        }
+    }
+
+    /**
+     * Ejecuta lecturas, verificaciones y los guardados que dependen de ellas sin que
+     * otra escritura se intercale, de este ni de otro proceso (las lecturas en memoria
+     * siguen sin bloquearse). Si otro proceso modificó la colección, se recarga antes
+     * de empezar. Las transacciones anidadas se unen a la externa.
+     */
+    protected <R> R writeTransaction(Supplier<R> work) {
+        writerLock.lock();
+        try {
+            if (writerLock.getHoldCount() > 1) {
+                return work.get();
+            }
+            return lockStorage(() -> {
+                if (storageVersion() != loadedVersion) {
+                    reloadLocked();
+                }
+                R result = work.get();
+                // Las escrituras propias no deben provocar una recarga
+                loadedVersion = storageVersion();
+                return result;
+            });
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Lectura optimista: se lee sin lock y se valida el sello; si hubo una escritura
+     * en medio (el mapa pudo verse a medio modificar) se repite con lock de lectura
+     */
+    private <R> R optimisticRead(Supplier<R> read) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                R result = read.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // Estado inconsistente visto durante una escritura: se reintenta con lock
+            }
+        }
+        return withReadLock(read);
+    }
+}
@@ -0,0 +1,43 @@
+package com.mycompany.shoesunicor.repository;
+
+import com.mycompany.shoesunicor.model.Order;
+
+import java.util.List;
+
+/**
+ * Página de resultados de una consulta de órdenes
+ * @author Victor Negrete
+ */
+public class OrderPage {
+    private final List<Order> orders;
+    private final int offset;
+    private final int totalCount;
+
+    public OrderPage(List<Order> orders, int offset, int totalCount) {
+        this.orders = orders;
+        this.offset = offset;
+        this.totalCount = totalCount;
+    }
+
+    /**
+     * Órdenes de esta página, de la más reciente a la más antigua
+     */
+    public List<Order> getOrders() {
+        return orders;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Total de órdenes que cumplen los criterios (todas las páginas)
+     */
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public boolean hasMore() {
+        return offset + orders.size() < totalCount;
+    }
+}
@@ -0,0 +1,90 @@
+package com.mycompany.shoesunicor.repository;
+
+import com.mycompany.shoesunicor.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Criterios de búsqueda de órdenes
+ * Los criterios en null no filtran; los resultados se entregan del más reciente al más antiguo
+ * @author Victor Negrete
+ */
+public class OrderQuery {
+    private String userId;
+    private OrderStatus status;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private String idFragment;
+    private int offset = 0;
+    private int limit = Integer.MAX_VALUE;
+
+    /**
+     * Solo las órdenes de un usuario
+     */
+    public OrderQuery forUser(String userId) {
+        this.userId = userId;
+        return this;
+    }
+
+    /**
+     * Solo las órdenes con un estado
+     */
+    public OrderQuery withStatus(OrderStatus status) {
+        this.status = status;
+        return this;
+    }
+
+    /**
+     * Solo las órdenes con fecha dentro del rango (ambos extremos incluidos)
+     */
+    public OrderQuery between(LocalDateTime from, LocalDateTime to) {
+        this.from = from;
+        this.to = to;
+        return this;
+    }
+
+    /**
+     * Solo las órdenes cuyo ID contiene el texto (sin distinguir mayúsculas)
+     */
+    public OrderQuery idContains(String idFragment) {
+        this.idFragment = idFragment == null || idFragment.isBlank() ? null : idFragment.trim().toLowerCase();
+        return this;
+    }
+
+    /**
+     * Página de resultados: se omiten los primeros offset y se devuelven hasta limit
+     */
+    public OrderQuery page(int offset, int limit) {
+        this.offset = Math.max(0, offset);
+        this.limit = Math.max(0, limit);
+        return this;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public String getIdFragment() {
+        return idFragment;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,212 @@
+package com.mycompany.shoesunicor.repository;
+
+import com.mycompany.shoesunicor.model.Order;
+import com.mycompany.shoesunicor.model.OrderStatus;
+import com.mycompany.shoesunicor.util.JsonDatabase;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Repositorio en memoria de órdenes
+ * Mantiene índices secundarios ordenados por fecha: todas las órdenes, las de cada
+ * usuario y las de cada estado. Una consulta parte del índice más pequeño que aplica,
+ * recorta el rango de fechas con subMap y pagina sin volver a ordenar.
+ * @author Victor Negrete
+ */
+public class OrderRepository extends InMemoryRepository<Order> {
+    private static OrderRepository instance;
+
+    private final NavigableMap<OrderKey, Order> byDate = new TreeMap<>();
+    private final Map<String, NavigableMap<OrderKey, Order>> byUser = new HashMap<>();
+    private final Map<OrderStatus, NavigableMap<OrderKey, Order>> byStatus = new EnumMap<>(OrderStatus.class);
+    /** ID de orden → valores con los que quedó indexada (para retirarla al cambiar) */
+    private final Map<String, IndexedOrder> indexed = new HashMap<>();
+
+    private OrderRepository() {
+        reload();
+    }
+
+    public static synchronized OrderRepository getInstance() {
+        if (instance == null) {
+            instance = new OrderRepository();
+        }
+        return instance;
+    }
+
+    @Override
+    protected String getId(Order entity) {
+        return entity.getId();
+    }
+
+    @Override
+    protected List<Order> loadFromStorage() {
+        return JsonDatabase.loadOrders();
+    }
+
+    @Override
+    protected void appendToStorage(List<Order> changed) {
+        JsonDatabase.appendOrders(changed);
+    }
+
+    @Override
+    protected long storageVersion() {
+        return JsonDatabase.ordersVersion();
+    }
+
+    @Override
+    protected <R> R lockStorage(Supplier<R> work) {
+        return JsonDatabase.withOrdersLock(work);
+    }
+
+    @Override
+    protected void onReloaded(Collection<Order> all) {
+        byDate.clear();
+        byUser.clear();
+        byStatus.clear();
+        indexed.clear();
+        for (Order order : all) {
+            index(order);
+        }
+    }
+
+    @Override
+    protected void onSaved(Collection<Order> changed) {
+        for (Order order : changed) {
+            index(order);
+        }
+    }
+
+    /**
+     * Consulta órdenes por usuario, estado, rango de fechas y fragmento de ID
+     * Devuelve la página pedida, de la más reciente a la más antigua
+     */
+    public OrderPage query(OrderQuery query) {
+        refreshIfChanged();
+        return withReadLock(() -> queryIndexes(query));
+    }
+
+    private OrderPage queryIndexes(OrderQuery query) {
+        // Rango invertido: no hay órdenes (y headMap rechazaría un límite anterior a tailMap)
+        if (query.getFrom() != null && query.getTo() != null && query.getFrom().isAfter(query.getTo())) {
+            return new OrderPage(List.of(), query.getOffset(), 0);
+        }
+        NavigableMap<OrderKey, Order> source = byDate;
+        if (query.getUserId() != null) {
+            source = byUser.getOrDefault(query.getUserId(), new TreeMap<>());
+        }
+        if (query.getStatus() != null) {
+            NavigableMap<OrderKey, Order> statusOrders = byStatus.getOrDefault(query.getStatus(), new TreeMap<>());
+            if (statusOrders.size() < source.size()) {
+                source = statusOrders;
+            }
+        }
+        if (query.getFrom() != null) {
+            source = source.tailMap(new OrderKey(query.getFrom(), ""), true);
+        }
+        if (query.getTo() != null) {
+            source = source.headMap(new OrderKey(query.getTo(), String.valueOf(Character.MAX_VALUE)), true);
+        }
+
+        boolean filtered = query.getIdFragment() != null
+                || (query.getUserId() != null && query.getStatus() != null);
+        List<Order> page = new ArrayList<>(Math.min(query.getLimit(), 64));
+        if (!filtered) {
+            // El índice ya resuelve todos los criterios: solo se recorre la página pedida
+            int skipped = 0;
+            for (Order order : source.descendingMap().values()) {
+                if (page.size() >= query.getLimit()) {
+                    break;
+                }
+                if (skipped++ >= query.getOffset()) {
+                    page.add(order);
+                }
+            }
+            return new OrderPage(page, query.getOffset(), source.size());
+        }
+
+        int total = 0;
+        for (Order order : source.descendingMap().values()) {
+            if (!matches(order, query)) {
+                continue;
+            }
+            if (total >= query.getOffset() && page.size() < query.getLimit()) {
+                page.add(order);
+            }
+            total++;
+        }
+        return new OrderPage(page, query.getOffset(), total);
+    }
+
+    /**
+     * Criterios que no resolvió el índice elegido como fuente
+     */
+    private boolean matches(Order order, OrderQuery query) {
+        if (query.getUserId() != null && !query.getUserId().equals(order.getUserId())) {
+            return false;
+        }
+        if (query.getStatus() != null && query.getStatus() != order.getStatus()) {
+            return false;
+        }
+        return query.getIdFragment() == null || order.getId().toLowerCase().contains(query.getIdFragment());
+    }
+
+    private void index(Order order) {
+        IndexedOrder previous = indexed.remove(order.getId());
+        if (previous != null) {
+            byDate.remove(previous.key());
+            removeFrom(byUser, previous.userId(), previous.key());
+            removeFrom(byStatus, previous.status(), previous.key());
+        }
+
+        IndexedOrder current = new IndexedOrder(new OrderKey(order.getOrderDate(), order.getId()),
+                order.getUserId(), order.getStatus());
+        byDate.put(current.key(), order);
+        if (current.userId() != null) {
+            byUser.computeIfAbsent(current.userId(), k -> new TreeMap<>()).put(current.key(), order);
+        }
+        if (current.status() != null) {
+            byStatus.computeIfAbsent(current.status(), k -> new TreeMap<>()).put(current.key(), order);
+        }
+        indexed.put(order.getId(), current);
+    }
+
+    private static <K> void removeFrom(Map<K, NavigableMap<OrderKey, Order>> index, K group, OrderKey key) {
+        if (group == null) {
+            return;
+        }
+        NavigableMap<OrderKey, Order> orders = index.get(group);
+        if (orders != null) {
+            orders.remove(key);
+            if (orders.isEmpty()) {
+                index.remove(group);
+            }
+        }
+    }
+
+    /**
+     * Clave de orden cronológico; el ID desempata órdenes con la misma fecha
+     */
+    private record OrderKey(LocalDateTime date, String id) implements Comparable<OrderKey> {
+        OrderKey {
+            date = date != null ? date : LocalDateTime.MIN;
+        }
+
+        @Override
+        public int compareTo(OrderKey other) {
+            int byDateTime = date.compareTo(other.date);
+            return byDateTime != 0 ? byDateTime : id.compareTo(other.id);
+        }
+    }
+
+    private record IndexedOrder(OrderKey key, String userId, OrderStatus status) {
+    }
+}
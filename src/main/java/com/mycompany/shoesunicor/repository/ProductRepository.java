@@ -0,0 +1,190 @@
+package com.mycompany.shoesunicor.repository;
+
+import com.mycompany.shoesunicor.model.Product;
+import com.mycompany.shoesunicor.util.JsonDatabase;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Repositorio en memoria de productos
+ * El inventario se modifica en transacciones de escritura: la verificación del stock,
+ * el descuento y el guardado ocurren sin que otra escritura de productos se intercale,
+ * tampoco desde otra instancia de la aplicación que comparta el directorio de datos.
+ * Una reserva descuenta todo o nada.
+ * @author Victor Negrete
+ */
+public class ProductRepository extends InMemoryRepository<Product> {
+    private static ProductRepository instance;
+
+    /**
+     * Orden por nombre sin distinguir mayúsculas; los productos sin nombre van al final, por ID
+     */
+    public static final Comparator<Product> BY_NAME =
+            Comparator.comparing(Product::getName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                    .thenComparing(Product::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final ProductSearchIndex searchIndex = new ProductSearchIndex();
+
+    private ProductRepository() {
+        reload();
+    }
+
+    public static synchronized ProductRepository getInstance() {
+        if (instance == null) {
+            instance = new ProductRepository();
+        }
+        return instance;
+    }
+
+    @Override
+    protected String getId(Product entity) {
+        return entity.getId();
+    }
+
+    @Override
+    protected List<Product> loadFromStorage() {
+        return JsonDatabase.loadProducts();
+    }
+
+    @Override
+    protected long storageVersion() {
+        return JsonDatabase.productsVersion();
+    }
+
+    @Override
+    protected <R> R lockStorage(Supplier<R> work) {
+        return JsonDatabase.withProductsLock(work);
+    }
+
+    @Override
+    protected void onReloaded(Collection<Product> all) {
+        searchIndex.rebuild(all);
+    }
+
+    @Override
+    protected void onSaved(Collection<Product> changed) {
+        for (Product product : changed) {
+            searchIndex.index(product);
+        }
+    }
+
+    /**
+     * Busca productos por nombre, marca, categoría o descripción usando el índice invertido
+     * Cada término puede ser parte de una palabra; se devuelven los productos que
+     * coinciden con todos los términos, del más relevante al menos relevante
+     */
+    public List<Product> search(String query) {
+        refreshIfChanged();
+        Map<String, Integer> scores = searchIndex.search(query);
+        List<Product> results = new ArrayList<>(scores.size());
+        for (String id : scores.keySet()) {
+            Product product = findById(id);
+            if (product != null) {
+                results.add(product);
+            }
+        }
+        results.sort(Comparator.comparing((Product p) -> scores.get(p.getId())).reversed()
+                .thenComparing(BY_NAME));
+        return results;
+    }
+
+    @Override
+    protected void appendToStorage(List<Product> changed) {
+        JsonDatabase.appendProducts(changed);
+    }
+
+    /**
+     * Reserva atómicamente el stock de todas las líneas (ID de producto → cantidad).
+     * Si algún producto no existe o no alcanza, no se descuenta nada y retorna null.
+     * Los productos que llegan a 0 se desactivan. El cambio se persiste en un solo lote.
+     * @return la reserva, para devolverla con releaseStock si la compra no se completa
+     */
+    public StockReservation reserveStock(Map<String, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return null;
+        }
+        return writeTransaction(() -> {
+            List<Product> products = new ArrayList<>();
+            for (Map.Entry<String, Integer> line : quantities.entrySet()) {
+                Product product = findById(line.getKey());
+                if (product == null || line.getValue() <= 0 || product.getStock() < line.getValue()) {
+                    return null;
+                }
+                products.add(product);
+            }
+            Set<String> deactivated = new HashSet<>();
+            updateAll(products, () -> {
+                for (Product product : products) {
+                    int newStock = product.getStock() - quantities.get(product.getId());
+                    product.setStock(newStock);
+                    if (newStock == 0 && product.isActive()) {
+                        product.setActive(false);
+                        deactivated.add(product.getId());
+                    }
+                }
+            });
+            return new StockReservation(quantities, deactivated);
+        });
+    }
+
+    /**
+     * Devuelve al inventario una reserva previa (por ejemplo si la orden no se pudo guardar).
+     * Reactiva solo los productos que la propia reserva desactivó.
+     */
+    public void releaseStock(StockReservation reservation) {
+        writeTransaction(() -> {
+            Map<String, Integer> quantities = reservation.getQuantities();
+            List<Product> products = new ArrayList<>();
+            for (String productId : quantities.keySet()) {
+                Product product = findById(productId);
+                if (product != null) {
+                    products.add(product);
+                }
+            }
+            updateAll(products, () -> {
+                for (Product product : products) {
+                    product.setStock(product.getStock() + quantities.get(product.getId()));
+                    if (reservation.getDeactivatedProductIds().contains(product.getId())) {
+                        product.setActive(true);
+                    }
+                }
+            });
+            return null;
+        });
+    }
+
+    /**
+     * Fija el stock de un producto
+     * Si el stock llega a 0, el producto se desactiva automáticamente
+     */
+    public boolean updateStock(String productId, int newStock) {
+        return update(productId, product -> {
+            product.setStock(newStock);
+            if (newStock == 0) {
+                product.setActive(false);
+            }
+        }) != null;
+    }
+
+    /**
+     * Activa o desactiva un producto manualmente
+     * No se activa un producto sin stock; la verificación usa el stock vigente en disco
+     */
+    public boolean setActive(String productId, boolean active) {
+        return writeTransaction(() -> {
+            Product current = findById(productId);
+            if (current == null || (active && current.getStock() == 0)) {
+                return false;
+            }
+            update(productId, product -> product.setActive(active));
+            return true;
+        });
+    }
+}
@@ -0,0 +1,281 @@
+package com.mycompany.shoesunicor.repository;
+
+import com.mycompany.shoesunicor.model.Product;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido de texto completo sobre nombre, marca, categoría y descripción
+ *
+ * Cada palabra (en minúsculas y sin tildes) apunta a los productos que la contienen
+ * con un peso según el campo. Para búsquedas por subcadena, cada trigrama apunta a
+ * las palabras del vocabulario que lo contienen; los términos de 1-2 letras se
+ * resuelven por prefijo. Una consulta con varios términos devuelve los productos
+ * que coinciden con todos, ordenados por puntaje.
+ * El índice se actualiza de forma incremental: al reindexar un producto solo se
+ * tocan las palabras que cambiaron.
+ * @author Victor Negrete
+ */
+class ProductSearchIndex {
+    private static final int NAME_WEIGHT = 8;
+    private static final int BRAND_WEIGHT = 4;
+    private static final int CATEGORY_WEIGHT = 4;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    /** palabra → (ID de producto → peso) */
+    private final Map<String, Map<String, Integer>> postings = new HashMap<>();
+    /** trigrama → palabras del vocabulario que lo contienen */
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+    /** vocabulario ordenado para búsquedas por prefijo */
+    private final NavigableSet<String> vocabulary = new TreeSet<>();
+    /** ID de producto → textos indexados (nombre, marca, categoría, descripción) */
+    private final Map<String, String[]> indexedFields = new HashMap<>();
+
+    /**
+     * Reconstruye el índice completo
+     */
+    synchronized void rebuild(Collection<Product> products) {
+        postings.clear();
+        trigrams.clear();
+        vocabulary.clear();
+        indexedFields.clear();
+        for (Product product : products) {
+            index(product);
+        }
+    }
+
+    /**
+     * Indexa o reindexa un producto
+     */
+    synchronized void index(Product product) {
+        String id = product.getId();
+        String[] newFields = {product.getName(), product.getBrand(), product.getCategory(), product.getDescription()};
+        String[] oldFields = indexedFields.get(id);
+        if (Arrays.equals(newFields, oldFields)) {
+            return;
+        }
+        Map<String, Integer> newTerms = extractTerms(newFields);
+        Map<String, Integer> oldTerms = oldFields != null ? extractTerms(oldFields) : Collections.emptyMap();
+
+        for (String term : oldTerms.keySet()) {
+            if (!newTerms.containsKey(term)) {
+                removePosting(term, id);
+            }
+        }
+        for (Map.Entry<String, Integer> entry : newTerms.entrySet()) {
+            Map<String, Integer> ids = postings.get(entry.getKey());
+            if (ids == null) {
+                ids = new HashMap<>();
+                postings.put(entry.getKey(), ids);
+                addToVocabulary(entry.getKey());
+            }
+            ids.put(id, entry.getValue());
+        }
+        indexedFields.put(id, newFields);
+    }
+
+    /**
+     * Busca los productos que contienen todos los términos de la consulta
+     * Devuelve ID de producto → puntaje; una palabra igual al término vale el doble
+     * que una que solo lo contiene
+     */
+    synchronized Map<String, Integer> search(String query) {
+        // Resolver primero el término más selectivo para acotar los candidatos
+        List<TermMatch> matches = new ArrayList<>();
+        for (String term : new LinkedHashSet<>(tokenize(query))) {
+            matches.add(new TermMatch(term, matchingWords(term)));
+        }
+        matches.sort(Comparator.comparingLong(this::estimatedSize));
+
+        Map<String, Integer> scores = null;
+        for (TermMatch match : matches) {
+            Map<String, Integer> termScores = scoreTerm(match, scores);
+            if (termScores.isEmpty()) {
+                return termScores;
+            }
+            if (scores != null) {
+                for (Map.Entry<String, Integer> entry : termScores.entrySet()) {
+                    entry.setValue(entry.getValue() + scores.get(entry.getKey()));
+                }
+            }
+            scores = termScores;
+        }
+        return scores != null ? scores : new HashMap<>();
+    }
+
+    /**
+     * Calcula el puntaje de un término; si hay candidatos previos, solo considera esos
+     */
+    private Map<String, Integer> scoreTerm(TermMatch match, Map<String, Integer> candidates) {
+        Map<String, Integer> scores = new HashMap<>();
+        for (String word : match.words()) {
+            int factor = word.equals(match.term()) ? 2 : 1;
+            Map<String, Integer> wordPostings = postings.get(word);
+            if (candidates != null && candidates.size() < wordPostings.size()) {
+                // Recorrer el conjunto más pequeño
+                for (String id : candidates.keySet()) {
+                    Integer weight = wordPostings.get(id);
+                    if (weight != null) {
+                        scores.merge(id, weight * factor, Math::max);
+                    }
+                }
+            } else {
+                for (Map.Entry<String, Integer> posting : wordPostings.entrySet()) {
+                    if (candidates == null || candidates.containsKey(posting.getKey())) {
+                        scores.merge(posting.getKey(), posting.getValue() * factor, Math::max);
+                    }
+                }
+            }
+        }
+        return scores;
+    }
+
+    private long estimatedSize(TermMatch match) {
+        long size = 0;
+        for (String word : match.words()) {
+            size += postings.get(word).size();
+        }
+        return size;
+    }
+
+    /**
+     * Palabras del vocabulario que contienen el término
+     */
+    private Collection<String> matchingWords(String term) {
+        if (term.length() < 3) {
+            return vocabulary.subSet(term, true, term + Character.MAX_VALUE, false);
+        }
+
+        // Partir del trigrama menos frecuente y verificar la subcadena completa
+        Set<String> smallest = null;
+        for (String trigram : trigramsOf(term)) {
+            Set<String> words = trigrams.get(trigram);
+            if (words == null) {
+                return Collections.emptyList();
+            }
+            if (smallest == null || words.size() < smallest.size()) {
+                smallest = words;
+            }
+        }
+        List<String> matches = new ArrayList<>();
+        for (String word : smallest) {
+            if (word.contains(term)) {
+                matches.add(word);
+            }
+        }
+        return matches;
+    }
+
+    private void removePosting(String term, String id) {
+        Map<String, Integer> ids = postings.get(term);
+        if (ids == null) {
+            return;
+        }
+        ids.remove(id);
+        if (ids.isEmpty()) {
+            postings.remove(term);
+            vocabulary.remove(term);
+            for (String trigram : trigramsOf(term)) {
+                Set<String> words = trigrams.get(trigram);
+                if (words != null) {
+                    words.remove(term);
+                    if (words.isEmpty()) {
+                        trigrams.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    private void addToVocabulary(String term) {
+        vocabulary.add(term);
+        for (String trigram : trigramsOf(term)) {
+            trigrams.computeIfAbsent(trigram, k -> new HashSet<>()).add(term);
+        }
+    }
+
+    private static Map<String, Integer> extractTerms(String[] fields) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, fields[0], NAME_WEIGHT);
+        addTerms(terms, fields[1], BRAND_WEIGHT);
+        addTerms(terms, fields[2], CATEGORY_WEIGHT);
+        addTerms(terms, fields[3], DESCRIPTION_WEIGHT);
+        return terms;
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String term : tokenize(text)) {
+            terms.merge(term, weight, Math::max);
+        }
+    }
+
+    /**
+     * Divide un texto en palabras en minúsculas y sin tildes
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 128) {
+                if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                    token.append(c);
+                } else if (c >= 'A' && c <= 'Z') {
+                    token.append((char) (c + ('a' - 'A')));
+                } else if (token.length() > 0) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                }
+            } else if (Character.isLetterOrDigit(c)) {
+                token.append(fold(c));
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK && token.length() > 0) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    /**
+     * Pasa un carácter no ASCII a minúscula sin tilde (á → a, Ñ → n)
+     */
+    private static String fold(char c) {
+        String decomposed = Normalizer.normalize(String.valueOf(Character.toLowerCase(c)), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("");
+    }
+
+    private static Set<String> trigramsOf(String word) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + 3 <= word.length(); i++) {
+            result.add(word.substring(i, i + 3));
+        }
+        return result;
+    }
+
+    /**
+     * Término de la consulta con las palabras del vocabulario que lo contienen
+     */
+    private record TermMatch(String term, Collection<String> words) {
+    }
+}
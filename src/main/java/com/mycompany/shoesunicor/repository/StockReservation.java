@@ -0,0 +1,32 @@
+package com.mycompany.shoesunicor.repository;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Stock descontado por una reserva, para poder devolverlo tal como estaba
+ * @author Victor Negrete
+ */
+public class StockReservation {
+    private final Map<String, Integer> quantities;
+    private final Set<String> deactivatedProductIds;
+
+    StockReservation(Map<String, Integer> quantities, Set<String> deactivatedProductIds) {
+        this.quantities = Map.copyOf(quantities);
+        this.deactivatedProductIds = Set.copyOf(deactivatedProductIds);
+    }
+
+    /**
+     * ID de producto → cantidad descontada
+     */
+    public Map<String, Integer> getQuantities() {
+        return quantities;
+    }
+
+    /**
+     * Productos que la reserva desactivó al dejarlos sin stock
+     */
+    public Set<String> getDeactivatedProductIds() {
+        return deactivatedProductIds;
+    }
+}
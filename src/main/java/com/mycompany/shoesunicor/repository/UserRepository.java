@@ -0,0 +1,142 @@
+package com.mycompany.shoesunicor.repository;
+
+import com.mycompany.shoesunicor.model.User;
+import com.mycompany.shoesunicor.util.JsonDatabase;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Repositorio en memoria de usuarios
+ * Mantiene índices hash por nombre de usuario y por email (sin distinguir
+ * mayúsculas/minúsculas) para que el login y el registro no recorran todos los usuarios.
+ * @author Victor Negrete
+ */
+public class UserRepository extends InMemoryRepository<User> {
+    private static UserRepository instance;
+
+    private final Map<String, User> byUsername = new HashMap<>();
+    private final Map<String, User> byEmail = new HashMap<>();
+    /** ID de usuario → claves con las que quedó indexado (para retirarlo al cambiar) */
+    private final Map<String, String[]> indexedKeys = new HashMap<>();
+
+    private UserRepository() {
+        reload();
+    }
+
+    public static synchronized UserRepository getInstance() {
+        if (instance == null) {
+            instance = new UserRepository();
+        }
+        return instance;
+    }
+
+    @Override
+    protected String getId(User entity) {
+        return entity.getId();
+    }
+
+    @Override
+    protected List<User> loadFromStorage() {
+        return JsonDatabase.loadUsers();
+    }
+
+    @Override
+    protected void appendToStorage(List<User> changed) {
+        JsonDatabase.appendUsers(changed);
+    }
+
+    @Override
+    protected long storageVersion() {
+        return JsonDatabase.usersVersion();
+    }
+
+    @Override
+    protected <R> R lockStorage(Supplier<R> work) {
+        return JsonDatabase.withUsersLock(work);
+    }
+
+    @Override
+    protected void onReloaded(Collection<User> all) {
+        byUsername.clear();
+        byEmail.clear();
+        indexedKeys.clear();
+        for (User user : all) {
+            index(user);
+        }
+    }
+
+    @Override
+    protected void onSaved(Collection<User> changed) {
+        for (User user : changed) {
+            index(user);
+        }
+    }
+
+    /**
+     * Busca un usuario por nombre de usuario (case-insensitive)
+     */
+    public User findByUsername(String username) {
+        String key = normalize(username);
+        return key != null ? withReadLock(() -> byUsername.get(key)) : null;
+    }
+
+    /**
+     * Busca un usuario por email (case-insensitive)
+     */
+    public User findByEmail(String email) {
+        String key = normalize(email);
+        return key != null ? withReadLock(() -> byEmail.get(key)) : null;
+    }
+
+    /**
+     * Guarda un usuario nuevo solo si su nombre de usuario y su email no están en uso
+     * La verificación y el guardado ocurren en una misma transacción, sin carrera entre
+     * registros de este ni de otros procesos
+     */
+    public boolean saveIfUnique(User user) {
+        return writeTransaction(() -> {
+            if (findByUsername(user.getUsername()) != null || findByEmail(user.getEmail()) != null) {
+                return false;
+            }
+            save(user);
+            return true;
+        });
+    }
+
+    private void index(User user) {
+        String[] previous = indexedKeys.remove(user.getId());
+        if (previous != null) {
+            removeKey(byUsername, previous[0], user.getId());
+            removeKey(byEmail, previous[1], user.getId());
+        }
+
+        String usernameKey = normalize(user.getUsername());
+        String emailKey = normalize(user.getEmail());
+        // Si hay duplicados heredados se conserva el primero, como la búsqueda lineal anterior
+        if (usernameKey != null) {
+            byUsername.putIfAbsent(usernameKey, user);
+        }
+        if (emailKey != null) {
+            byEmail.putIfAbsent(emailKey, user);
+        }
+        indexedKeys.put(user.getId(), new String[]{usernameKey, emailKey});
+    }
+
+    private static void removeKey(Map<String, User> index, String key, String userId) {
+        if (key != null) {
+            User indexed = index.get(key);
+            if (indexed != null && indexed.getId().equals(userId)) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return value != null ? value.trim().toLowerCase(Locale.ROOT) : null;
+    }
+}
@@ -1,9 +1,20 @@
 package com.mycompany.shoesunicor.util;
 
 import javafx.animation.*;
+import javafx.geometry.Bounds;
 import javafx.scene.Node;
+import javafx.scene.Scene;
 import javafx.util.Duration;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Utilidad para animaciones modernas en JavaFX
  * @author Victor Negrete
@@ -149,8 +160,127 @@ public class AnimationUtil {
         SequentialTransition seq = new SequentialTransition(translate1, translate2, translate3, translate4);
         seq.play();
     }
+    
+    /**
+     * Animación de entrada escalonada para un lote de nodos (por ejemplo tarjetas de productos)
+     *
+     * Un solo AnimationTimer anima todo el lote: cada nodo se desliza desde abajo con
+     * fade, empezando STAGGER después del anterior. Como máximo MAX_ACTIVE nodos se
+     * animan a la vez; los que ya no están en pantalla al llegar su turno se muestran
+     * sin animación, y los lotes de más de LARGE_BATCH elementos no se animan.
+     * Un nodo que ya está en el lote se ignora si se vuelve a agregar (por ejemplo
+     * cuando la ListView llama dos veces a updateItem sobre la misma celda).
+     */
+    public static class EntranceAnimator {
+        private static final double DISTANCE = 50;
+        private static final long DURATION_NANOS = 400_000_000L;
+        private static final long STAGGER_NANOS = 50_000_000L;
+        private static final int MAX_ACTIVE = 12;
+        private static final int LARGE_BATCH = 300;
+        
+        private final ArrayDeque<Node> waiting = new ArrayDeque<>();
+        private final List<Node> active = new ArrayList<>();
+        private final Map<Node, Long> startTimes = new IdentityHashMap<>();
+        private final Set<Node> queued = Collections.newSetFromMap(new IdentityHashMap<>());
+        private boolean enabled = true;
+        private long nextStart = 0;
+        
+        private final AnimationTimer timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                step(now);
+            }
+        };
+        
+        /**
+         * Comienza un lote nuevo; termina al instante lo que quedara del anterior
+         * @param batchSize total de elementos del lote (para omitir la animación en lotes grandes)
+         */
+        public void begin(int batchSize) {
+            finishAll();
+            enabled = batchSize <= LARGE_BATCH;
+            nextStart = 0;
+        }
+        
+        /**
+         * Agrega un nodo al lote en curso
+         */
+        public void add(Node node) {
+            if (!enabled) {
+                show(node);
+                return;
+            }
+            if (!queued.add(node)) {
+                return;
+            }
+            node.setOpacity(0);
+            node.setTranslateY(DISTANCE);
+            waiting.add(node);
+            timer.start();
+        }
+        
+        /**
+         * Muestra de inmediato todos los nodos pendientes o en animación
+         */
+        public void finishAll() {
+            timer.stop();
+            for (Node node : waiting) {
+                show(node);
+            }
+            for (Node node : active) {
+                show(node);
+            }
+            waiting.clear();
+            active.clear();
+            startTimes.clear();
+            queued.clear();
+        }
+        
+        private void step(long now) {
+            // Iniciar los siguientes nodos respetando el escalonado y el máximo simultáneo
+            while (!waiting.isEmpty() && active.size() < MAX_ACTIVE && now >= nextStart) {
+                Node node = waiting.poll();
+                if (isOffScreen(node)) {
+                    queued.remove(node);
+                    show(node);
+                    continue;
+                }
+                active.add(node);
+                startTimes.put(node, now);
+                nextStart = now + STAGGER_NANOS;
+            }
+            
+            Iterator<Node> it = active.iterator();
+            while (it.hasNext()) {
+                Node node = it.next();
+                double t = Math.min(1.0, (now - startTimes.get(node)) / (double) DURATION_NANOS);
+                double eased = Interpolator.EASE_OUT.interpolate(0.0, 1.0, t);
+                node.setOpacity(eased);
+                node.setTranslateY(DISTANCE * (1 - eased));
+                if (t >= 1.0) {
+                    startTimes.remove(node);
+                    queued.remove(node);
+                    it.remove();
+                }
+            }
+            
+            if (waiting.isEmpty() && active.isEmpty()) {
+                timer.stop();
+            }
+        }
+        
+        private static boolean isOffScreen(Node node) {
+            Scene scene = node.getScene();
+            if (scene == null || !node.isVisible()) {
+                return true;
+            }
+            Bounds bounds = node.localToScene(node.getBoundsInLocal());
+            return !bounds.intersects(0, 0, scene.getWidth(), scene.getHeight());
+        }
+        
+        private static void show(Node node) {
+            node.setOpacity(1.0);
+            node.setTranslateY(0);
+        }
+    }
 }
-
-
-
-
@@ -0,0 +1,49 @@
+package com.mycompany.shoesunicor.util;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.mycompany.shoesunicor.model.CartItem;
+
+import java.io.IOException;
+
+import static com.mycompany.shoesunicor.util.JsonStreams.nextDouble;
+import static com.mycompany.shoesunicor.util.JsonStreams.nextInt;
+import static com.mycompany.shoesunicor.util.JsonStreams.nextNullableString;
+import static com.mycompany.shoesunicor.util.JsonStreams.writeString;
+
+/**
+ * Adaptador Gson de CartItem escrito a mano (sin reflexión)
+ * @author Victor Negrete
+ */
+public class CartItemAdapter extends TypeAdapter<CartItem> {
+
+    @Override
+    public void write(JsonWriter out, CartItem item) throws IOException {
+        out.beginObject();
+        writeString(out, "productId", item.getProductId());
+        writeString(out, "productName", item.getProductName());
+        out.name("price").value(item.getPrice());
+        out.name("quantity").value(item.getQuantity());
+        writeString(out, "imagePath", item.getImagePath());
+        out.endObject();
+    }
+
+    @Override
+    public CartItem read(JsonReader in) throws IOException {
+        CartItem item = new CartItem();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "productId" -> item.setProductId(nextNullableString(in));
+                case "productName" -> item.setProductName(nextNullableString(in));
+                case "price" -> item.setPrice(nextDouble(in, item.getPrice()));
+                case "quantity" -> item.setQuantity(nextInt(in, item.getQuantity()));
+                case "imagePath" -> item.setImagePath(nextNullableString(in));
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return item;
+    }
+}
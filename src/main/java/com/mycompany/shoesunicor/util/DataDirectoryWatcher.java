@@ -0,0 +1,149 @@
+package com.mycompany.shoesunicor.util;
+
+import com.mycompany.shoesunicor.repository.InMemoryRepository;
+import com.mycompany.shoesunicor.repository.OrderRepository;
+import com.mycompany.shoesunicor.repository.ProductRepository;
+import com.mycompany.shoesunicor.repository.UserRepository;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Vigila el directorio de datos y recarga en segundo plano la colección que cambió
+ *
+ * Cuando otra instancia o un script (por ejemplo, al restaurar una copia de seguridad)
+ * modifica users, products u orders (.json o .log), solo esa colección se vuelve a leer
+ * y el repositorio reemplaza su contenido de una vez: las lecturas siguen atendiéndose
+ * desde memoria y nunca ven una colección a medias. Las escrituras de este mismo proceso
+ * no provocan recargas.
+ *
+ * Los eventos se agrupan hasta que el directorio queda quieto QUIET_MILLIS (como mucho
+ * MAX_DELAY_MILLIS), así una copia de varios pasos se lee una sola vez, ya terminada.
+ * @author Victor Negrete
+ */
+public class DataDirectoryWatcher implements AutoCloseable {
+    private static final long QUIET_MILLIS = 200;
+    private static final long MAX_DELAY_MILLIS = 1000;
+
+    private final Map<String, Runnable> refreshers;
+    private final WatchService watchService;
+    private final Thread thread;
+    private final LongAdder refreshes = new LongAdder();
+
+    /**
+     * @param directory directorio a vigilar
+     * @param refreshers nombre de la colección (users, products, orders) → recarga
+     */
+    public DataDirectoryWatcher(Path directory, Map<String, Runnable> refreshers) throws IOException {
+        this.refreshers = Map.copyOf(refreshers);
+        this.watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        this.thread = new Thread(this::run, "data-watcher");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Crea y arranca el vigilante de los repositorios de la aplicación
+     */
+    public static DataDirectoryWatcher start() throws IOException {
+        DataDirectoryWatcher watcher = new DataDirectoryWatcher(Paths.get(JsonDatabase.DATA_DIR), Map.of(
+                "users", () -> refresh(UserRepository.getInstance(), JsonDatabase::usersChangedOnDisk),
+                "products", () -> refresh(ProductRepository.getInstance(), JsonDatabase::productsChangedOnDisk),
+                "orders", () -> refresh(OrderRepository.getInstance(), JsonDatabase::ordersChangedOnDisk)));
+        watcher.thread.start();
+        return watcher;
+    }
+
+    /**
+     * Cantidad de colecciones revisadas por cambios desde el inicio
+     */
+    public long getRefreshCount() {
+        return refreshes.sum();
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            System.err.println("Error cerrando vigilante de datos: " + e.getMessage());
+        }
+        thread.interrupt();
+    }
+
+    /**
+     * Un cambio sin lock (archivo distinto al último visto) obliga a recargar;
+     * si no, solo se recarga si otra instancia cambió la versión de la colección
+     */
+    private static void refresh(InMemoryRepository<?> repository, BooleanSupplier changedOnDisk) {
+        if (changedOnDisk.getAsBoolean()) {
+            repository.reload();
+        } else {
+            repository.refreshIfChanged();
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Set<String> changed = new LinkedHashSet<>();
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_DELAY_MILLIS);
+                do {
+                    collect(key, changed);
+                    key.reset();
+                    key = System.nanoTime() - deadline < 0
+                            ? watchService.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS) : null;
+                } while (key != null);
+
+                for (String collection : changed) {
+                    try {
+                        refreshers.get(collection).run();
+                        refreshes.increment();
+                    } catch (RuntimeException e) {
+                        System.err.println("Error recargando " + collection + ": " + e.getMessage());
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Vigilante cerrado
+        }
+    }
+
+    /**
+     * Agrega las colecciones afectadas por los eventos; los temporales y locks se ignoran
+     */
+    private void collect(WatchKey key, Set<String> changed) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Se perdieron eventos: revisar todas las colecciones
+                changed.addAll(refreshers.keySet());
+                continue;
+            }
+            String name = event.context().toString();
+            int dot = name.lastIndexOf('.');
+            if (dot < 0) {
+                continue;
+            }
+            String extension = name.substring(dot + 1);
+            String collection = name.substring(0, dot);
+            if ((extension.equals("json") || extension.equals("log")) && refreshers.containsKey(collection)) {
+                changed.add(collection);
+            }
+        }
+    }
+}
@@ -3,6 +3,9 @@ package com.mycompany.shoesunicor.util;
 import com.mycompany.shoesunicor.model.Product;
 import com.mycompany.shoesunicor.model.User;
 import com.mycompany.shoesunicor.model.UserRole;
+import com.mycompany.shoesunicor.repository.OrderRepository;
+import com.mycompany.shoesunicor.repository.ProductRepository;
+import com.mycompany.shoesunicor.repository.UserRepository;
 
 import java.util.List;
 
@@ -15,13 +18,16 @@ public class DataInitializer {
     public static void initializeData() {
         initializeUsers();
         initializeProducts();
+        
+        // Cargar las órdenes en memoria una sola vez al inicio
+        OrderRepository.getInstance();
     }
     
     private static void initializeUsers() {
-        List<User> users = JsonDatabase.loadUsers();
+        UserRepository userRepository = UserRepository.getInstance();
         
         // Si ya hay usuarios, no inicializar
-        if (!users.isEmpty()) {
+        if (userRepository.count() > 0) {
             return;
         }
         
@@ -29,7 +35,7 @@ public class DataInitializer {
         User admin = new User(
             JsonDatabase.generateId("USR"),
             "admin",
-            PasswordUtil.hashPassword("admin123"),
+            PasswordService.getInstance().hash("admin123"),
             "admin@unicorshoes.com",
             "Administrador Unicor",
             UserRole.ADMIN
@@ -39,7 +45,7 @@ public class DataInitializer {
         User victor = new User(
             JsonDatabase.generateId("USR"),
             "Victor19",
-            PasswordUtil.hashPassword("123456"),
+            PasswordService.getInstance().hash("123456"),
             "victor.negrete@unicor.edu.co",
             "Victor Manuel Negrete",
             UserRole.USER
@@ -48,7 +54,7 @@ public class DataInitializer {
         User maria = new User(
             JsonDatabase.generateId("USR"),
             "Maria23",
-            PasswordUtil.hashPassword("123456"),
+            PasswordService.getInstance().hash("123456"),
             "maria.garcia@unicor.edu.co",
             "Maria Alejandra Garcia",
             UserRole.USER
@@ -57,7 +63,7 @@ public class DataInitializer {
         User carlos = new User(
             JsonDatabase.generateId("USR"),
             "Carlos_2000",
-            PasswordUtil.hashPassword("123456"),
+            PasswordService.getInstance().hash("123456"),
             "carlos.rodriguez@unicor.edu.co",
             "Carlos Andres Rodriguez",
             UserRole.USER
@@ -66,19 +72,13 @@ public class DataInitializer {
         User andrea = new User(
             JsonDatabase.generateId("USR"),
             "Andrea_M",
-            PasswordUtil.hashPassword("123456"),
+            PasswordService.getInstance().hash("123456"),
             "andrea.martinez@unicor.edu.co",
             "Andrea Marcela Martinez",
             UserRole.USER
         );
         
-        users.add(admin);
-        users.add(victor);
-        users.add(maria);
-        users.add(carlos);
-        users.add(andrea);
-        
-        JsonDatabase.saveUsers(users);
+        userRepository.saveAll(List.of(admin, victor, maria, carlos, andrea));
         
         System.out.println("✓ Usuarios iniciales creados");
         System.out.println("  - Admin: username=admin, password=admin123");
@@ -89,7 +89,8 @@ public class DataInitializer {
     }
     
     private static void initializeProducts() {
-        List<Product> products = JsonDatabase.loadProducts();
+        ProductRepository productRepository = ProductRepository.getInstance();
+        List<Product> products = productRepository.findAll();
         
         // Lista de productos por defecto que deben existir
         String[] requiredProducts = {
@@ -219,7 +220,7 @@ public class DataInitializer {
         
         // Guardar productos solo si se añadieron nuevos
         if (addedCount > 0) {
-            JsonDatabase.saveProducts(products);
+            productRepository.saveAll(products);
             System.out.println("✓ " + addedCount + " producto(s) añadido(s) a la base de datos");
             System.out.println("✓ Total de productos en catálogo: " + products.size());
         }
@@ -0,0 +1,105 @@
+package com.mycompany.shoesunicor.util;
+
+import javafx.concurrent.Service;
+import javafx.concurrent.Task;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.layout.VBox;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Servicio de carga de datos en segundo plano para las vistas
+ *
+ * Cada vista crea un servicio por cada zona que carga (catálogo, pedidos, etc.).
+ * load() cancela la carga anterior que siga en curso y ejecuta la nueva en un hilo
+ * virtual, fuera del hilo de JavaFX; solo el resultado de la carga más reciente se
+ * entrega al consumidor, que corre en el hilo de JavaFX y puede tocar la interfaz.
+ * Si la carga falla, el error se entrega a la vista (también en el hilo de JavaFX),
+ * que debe reemplazar su marcador de carga por un mensaje de error.
+ * Si la vista sale de la escena, la carga en curso se cancela.
+ * @author Victor Negrete
+ */
+public class DataLoadService<T> extends Service<T> {
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("data-loader-", 0).factory());
+
+    private Callable<T> work;
+
+    /**
+     * @param view vista dueña de la carga; al quitarla de la escena se cancela la carga
+     * @param onLoaded recibe el resultado en el hilo de JavaFX
+     * @param onFailed recibe el error en el hilo de JavaFX
+     */
+    public DataLoadService(Node view, Consumer<T> onLoaded, Consumer<Throwable> onFailed) {
+        setExecutor(EXECUTOR);
+        setOnSucceeded(e -> onLoaded.accept(getValue()));
+        setOnFailed(e -> {
+            System.err.println("Error cargando datos: " + getException().getMessage());
+            onFailed.accept(getException());
+        });
+        view.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene == null) {
+                cancel();
+            }
+        });
+    }
+
+    /**
+     * Inicia una carga reemplazando la anterior; debe llamarse desde el hilo de JavaFX
+     */
+    public void load(Callable<T> work) {
+        this.work = work;
+        restart();
+    }
+
+    @Override
+    protected Task<T> createTask() {
+        Callable<T> taskWork = work;
+        return new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return taskWork.call();
+            }
+        };
+    }
+
+    /**
+     * Marcador que se muestra mientras llegan los datos
+     */
+    public static Node createPlaceholder(String message) {
+        ProgressIndicator indicator = new ProgressIndicator();
+        indicator.setPrefSize(40, 40);
+
+        Label label = new Label(message);
+        label.setStyle("-fx-font-size: 14px; -fx-text-fill: #7F8C8D;");
+
+        VBox box = new VBox(10, indicator, label);
+        box.setAlignment(Pos.CENTER);
+        box.setPadding(new Insets(50));
+        return box;
+    }
+
+    /**
+     * Marcador que reemplaza al de carga cuando la carga falla, con opción de reintentar
+     */
+    public static Node createErrorPlaceholder(String message, Runnable retry) {
+        Label label = new Label("⚠️ " + message);
+        label.setStyle("-fx-font-size: 14px; -fx-text-fill: #E74C3C;");
+
+        Button retryButton = new Button("Reintentar");
+        retryButton.setOnAction(e -> retry.run());
+
+        VBox box = new VBox(10, label, retryButton);
+        box.setAlignment(Pos.CENTER);
+        box.setPadding(new Insets(50));
+        return box;
+    }
+}
@@ -0,0 +1,103 @@
+package com.mycompany.shoesunicor.util;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generador de IDs únicos y ordenables estilo Snowflake, sin bloqueos
+ * Cada ID es un long de 63 bits: 42 bits de milisegundos Unix, 10 bits de nodo
+ * y 11 bits de secuencia. La marca de tiempo y la secuencia se guardan juntas
+ * en un AtomicLong, así que dos hilos nunca obtienen el mismo valor y los IDs
+ * de un proceso son estrictamente crecientes aunque el reloj retroceda.
+ * El nodo se reserva bloqueando un archivo en el directorio de datos, de modo que
+ * varias instancias que comparten ese directorio nunca usan el mismo nodo.
+ * @author Victor Negrete
+ */
+public class IdGenerator {
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 11;
+    private static final int MAX_NODES = 1 << NODE_BITS;
+    public static final String NODE_PROPERTY = "shoesunicor.node.id";
+
+    // Se conserva abierto durante toda la vida del proceso para mantener el nodo reservado
+    private static FileChannel nodeLeaseChannel;
+
+    private static final AtomicLong lastState = new AtomicLong();
+    private static final int nodeId = acquireNodeId();
+
+    /**
+     * Genera un ID con el prefijo dado, por ejemplo ORD_3712873498123980800
+     */
+    public static String nextId(String prefix) {
+        return prefix + "_" + nextLong();
+    }
+
+    public static long nextLong() {
+        long now = System.currentTimeMillis() << SEQUENCE_BITS;
+        long state;
+        long next;
+        do {
+            state = lastState.get();
+            // Nuevo milisegundo: secuencia 0. Mismo milisegundo (o reloj atrasado):
+            // siguiente secuencia, que al desbordarse pasa al milisegundo siguiente
+            next = Math.max(now, state + 1);
+        } while (!lastState.compareAndSet(state, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | ((long) nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    public static int getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Usa el nodo de la propiedad shoesunicor.node.id o reserva el primer nodo libre
+     * bloqueando data/nodes/node-N.lock; si no es posible, elige uno al azar
+     */
+    private static int acquireNodeId() {
+        String configured = System.getProperty(NODE_PROPERTY);
+        if (configured != null) {
+            try {
+                int node = Integer.parseInt(configured.trim());
+                if (node >= 0 && node < MAX_NODES) {
+                    return node;
+                }
+            } catch (NumberFormatException e) {
+                // Se ignora y se reserva un nodo automáticamente
+            }
+            System.err.println("Nodo inválido en " + NODE_PROPERTY + ": " + configured);
+        }
+
+        try {
+            Path nodesDir = Paths.get(JsonDatabase.DATA_DIR, "nodes");
+            Files.createDirectories(nodesDir);
+            for (int node = 0; node < MAX_NODES; node++) {
+                FileChannel channel = FileChannel.open(nodesDir.resolve("node-" + node + ".lock"),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                try {
+                    FileLock lock = channel.tryLock();
+                    if (lock != null) {
+                        nodeLeaseChannel = channel;
+                        return node;
+                    }
+                } catch (OverlappingFileLockException e) {
+                    // Reservado por este mismo proceso
+                }
+                channel.close();
+            }
+        } catch (IOException e) {
+            System.err.println("No se pudo reservar un nodo para IDs: " + e.getMessage());
+        }
+        return ThreadLocalRandom.current().nextInt(MAX_NODES);
+    }
+}
@@ -0,0 +1,167 @@
+package com.mycompany.shoesunicor.util;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Caché compartida de imágenes de productos
+ *
+ * Las imágenes se guardan por ruta y tamaño de destino, decodificadas ya reducidas
+ * a ese tamaño (nunca se retiene el bitmap original completo). Todo el trabajo de
+ * disco ocurre en hilos virtuales, fuera del hilo de JavaFX y sin retener el lock de
+ * la caché: elegir la miniatura (que calcula el hash del original) y decodificarla.
+ * Varias vistas que piden la misma imagen a la vez comparten una sola carga.
+ * La memoria se limita por bytes de píxeles decodificados (ancho × alto × 4); al
+ * superar el límite se descartan las menos usadas (LRU).
+ * El límite se configura en MB con -Dshoesunicor.image.cache.mb (por defecto 64).
+ * @author Victor Negrete
+ */
+public class ImageCache {
+    public static final String PROPERTY = "shoesunicor.image.cache.mb";
+    private static final long DEFAULT_MAX_MB = 64;
+    /** Propiedad del ImageView con la imagen que debe mostrar (las celdas se reciclan) */
+    private static final String VIEW_KEY = "shoesunicor.image.key";
+
+    private static final ExecutorService LOADER = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("image-loader-", 0).factory());
+
+    private static final long maxBytes = readMaxBytes();
+    private static final Map<String, CachedImage> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private static final Map<String, CompletableFuture<Image>> loading = new HashMap<>();
+    private static long currentBytes = 0;
+    /** Cambia al vaciar o invalidar: las cargas en curso de antes no entran en la caché */
+    private static long generation = 0;
+
+    /**
+     * Muestra en el ImageView la imagen de una ruta reducida para caber en width × height
+     * Si está en caché se asigna de inmediato; si no, el ImageView queda vacío hasta que
+     * termine la carga en segundo plano. Si mientras tanto se le pidió otra imagen (una
+     * celda reciclada), el resultado viejo se descarta. Debe llamarse desde el hilo de JavaFX.
+     */
+    public static void load(ImageView view, String path, double width, double height) {
+        if (path == null || path.isEmpty()) {
+            view.getProperties().remove(VIEW_KEY);
+            view.setImage(null);
+            return;
+        }
+        String key = path + "@" + (int) width + "x" + (int) height;
+        view.getProperties().put(VIEW_KEY, key);
+
+        CompletableFuture<Image> future;
+        synchronized (ImageCache.class) {
+            CachedImage cached = cache.get(key);
+            if (cached != null) {
+                view.setImage(cached.image());
+                return;
+            }
+            long loadGeneration = generation;
+            future = loading.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(
+                    () -> decode(k, path, width, height, loadGeneration), LOADER));
+        }
+        view.setImage(null);
+        future.thenAccept(image -> Platform.runLater(() -> {
+            if (key.equals(view.getProperties().get(VIEW_KEY))) {
+                view.setImage(image);
+            }
+        }));
+    }
+
+    /**
+     * Elige la variante y la decodifica en el hilo actual; null si no existe o está dañada
+     */
+    private static Image decode(String key, String path, double width, double height, long loadGeneration) {
+        Image image = null;
+        try {
+            // Usar la miniatura pregenerada más pequeña que alcance, si existe
+            File file = new File(ThumbnailGenerator.resolve(path, Math.max(width, height)));
+            if (file.exists()) {
+                Image decoded = new Image(file.toURI().toString(), width, height, true, true, false);
+                if (!decoded.isError()) {
+                    image = decoded;
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error cargando imagen " + path + ": " + e.getMessage());
+        } finally {
+            synchronized (ImageCache.class) {
+                loading.remove(key);
+                if (image != null && loadGeneration == generation) {
+                    long bytes = (long) Math.ceil(image.getWidth()) * (long) Math.ceil(image.getHeight()) * 4;
+                    cache.put(key, new CachedImage(image, bytes));
+                    currentBytes += bytes;
+                    evict();
+                }
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Descarta todas las variantes en caché de una ruta (por ejemplo al cambiar la imagen)
+     */
+    public static synchronized void invalidate(String path) {
+        generation++;
+        Iterator<Map.Entry<String, CachedImage>> it = cache.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, CachedImage> entry = it.next();
+            if (entry.getKey().startsWith(path + "@")) {
+                currentBytes -= entry.getValue().bytes();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Vacía la caché (por ejemplo tras generar miniaturas nuevas)
+     */
+    public static synchronized void clear() {
+        generation++;
+        cache.clear();
+        currentBytes = 0;
+    }
+
+    public static synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    public static long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Descarta las imágenes menos usadas hasta volver al límite (conserva la más reciente)
+     */
+    private static void evict() {
+        Iterator<CachedImage> it = cache.values().iterator();
+        while (currentBytes > maxBytes && cache.size() > 1 && it.hasNext()) {
+            currentBytes -= it.next().bytes();
+            it.remove();
+        }
+    }
+
+    private static long readMaxBytes() {
+        String value = System.getProperty(PROPERTY);
+        long mb = DEFAULT_MAX_MB;
+        if (value != null) {
+            try {
+                mb = Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                System.err.println("Tamaño de caché de imágenes inválido: " + value + ", usando " + DEFAULT_MAX_MB + " MB");
+            }
+        }
+        return Math.max(1, mb) * 1024 * 1024;
+    }
+
+    private record CachedImage(Image image, long bytes) {
+    }
+}
@@ -2,37 +2,100 @@ package com.mycompany.shoesunicor.util;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import com.mycompany.shoesunicor.model.*;
 
 import java.io.*;
-import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Gestión de persistencia con archivos JSON
+ * Cada colección se guarda como una instantánea (users.json, products.json, orders.json)
+ * más un log de cambios append-only (users.log, ...) con un registro JSON por línea.
+ * Guardar una entidad solo agrega una línea al log; cuando el log acumula suficientes
+ * registros se compacta dentro de la instantánea.
+ * Las instantáneas se escriben en el formato de {@link StorageFormat} (JSON compacto por defecto).
+ * Las instantáneas nunca se sobrescriben en sitio: se escriben en un archivo temporal,
+ * se fuerzan a disco y se mueven atómicamente sobre el destino.
+ * Una escritura que falla lanza UncheckedIOException, para que quien guarda pueda
+ * deshacer lo que dependía de ella (por ejemplo, devolver el stock reservado).
+ * Cada colección tiene su propio lock de lectura/escritura: las cargas y recorridos
+ * de una colección corren en paralelo, las escrituras de una colección se excluyen
+ * entre sí, y colecciones distintas nunca se bloquean mutuamente.
+ *
+ * Varias instancias de la aplicación pueden compartir el directorio de datos: cada
+ * escritura toma además un FileLock exclusivo sobre el archivo de lock de la colección
+ * (users.lock, ...) e incrementa un número de versión guardado aparte (users.version, ...).
+ * Comparando la versión, un proceso sabe si otro modificó la colección y solo entonces
+ * la recarga. La versión se lee sin tocar el archivo de lock: cerrar cualquier descriptor
+ * de ese archivo liberaría el FileLock que el proceso tenga tomado. Las lecturas no toman
+ * el FileLock: la instantánea se reemplaza por rename y el log se lee antes que la
+ * instantánea, así que nunca se ve una colección a medias.
+ * Para cambios hechos sin lock (por ejemplo restaurar una copia de seguridad) cada
+ * colección recuerda el estado de sus archivos tras su última carga o escritura;
+ * DataDirectoryWatcher lo compara para distinguir esos cambios de las escrituras propias.
  * @author Victor Negrete
  */
 public class JsonDatabase {
-    private static final String DATA_DIR = "src/main/resources/data/";
+    static final String DATA_DIR = "src/main/resources/data/";
     private static final String USERS_FILE = DATA_DIR + "users.json";
     private static final String PRODUCTS_FILE = DATA_DIR + "products.json";
     private static final String ORDERS_FILE = DATA_DIR + "orders.json";
-    
+
+    /** Registros pendientes en el log a partir de los cuales se compacta */
+    private static final int COMPACTION_THRESHOLD = 200;
+
+    /** Formato de escritura de las instantáneas; la lectura lo detecta solo */
+    private static final StorageFormat storageFormat = StorageFormat.fromSystemProperty();
+
+    // JSON compacto: instantáneas (la indentación la decide el JsonWriter) y log, un registro por línea.
+    // Los modelos usan adaptadores escritos a mano que leen y escriben directo sobre el stream.
     private static final Gson gson = new GsonBuilder()
-            .setPrettyPrinting()
-            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter().nullSafe())
+            .registerTypeAdapter(Product.class, new ProductAdapter().nullSafe())
+            .registerTypeAdapter(CartItem.class, new CartItemAdapter().nullSafe())
+            .registerTypeAdapter(Order.class, new OrderAdapter().nullSafe())
+            .registerTypeAdapter(User.class, new UserAdapter().nullSafe())
             .create();
-    
+
+    private static final Store<User> USERS =
+            new Store<>(USERS_FILE, User.class, User::getId, "usuarios");
+    private static final Store<Product> PRODUCTS =
+            new Store<>(PRODUCTS_FILE, Product.class, Product::getId, "productos");
+    private static final Store<Order> ORDERS =
+            new Store<>(ORDERS_FILE, Order.class, Order::getId, "órdenes");
+
     static {
         initializeDataDirectory();
     }
-    
+
     /**
      * Inicializa el directorio de datos si no existe
      */
@@ -42,118 +105,703 @@ public class JsonDatabase {
             if (!Files.exists(dataPath)) {
                 Files.createDirectories(dataPath);
             }
-            
-            // Crear archivos vacíos si no existen
-            createFileIfNotExists(USERS_FILE, "[]");
-            createFileIfNotExists(PRODUCTS_FILE, "[]");
-            createFileIfNotExists(ORDERS_FILE, "[]");
-        } catch (IOException e) {
+
+            // Reparar escrituras interrumpidas y crear los archivos que falten, cada
+            // colección con su lock tomado por si otra instancia está escribiendo
+            for (Store<?> store : List.of(USERS, PRODUCTS, ORDERS)) {
+                store.recover();
+            }
+        } catch (IOException | UncheckedIOException e) {
             System.err.println("Error inicializando directorio de datos: " + e.getMessage());
         }
     }
-    
-    private static void createFileIfNotExists(String filePath, String defaultContent) throws IOException {
-        Path path = Paths.get(filePath);
+
+    /**
+     * Verifica que el archivo sea un arreglo JSON completo recorriéndolo en streaming,
+     * sin construir el árbol de elementos en memoria
+     */
+    private static boolean isValidJson(Path path) {
         if (!Files.exists(path)) {
-            Files.writeString(path, defaultContent);
+            return false;
+        }
+        try (JsonReader reader = new JsonReader(openSnapshotReader(path))) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                reader.skipValue();
+            }
+            reader.endArray();
+            return reader.peek() == JsonToken.END_DOCUMENT;
+        } catch (IOException | IllegalStateException e) {
+            return false;
         }
     }
-    
-    // ========== USUARIOS ==========
-    
-    public static List<User> loadUsers() {
-        try {
-            String json = Files.readString(Paths.get(USERS_FILE));
-            Type listType = new TypeToken<ArrayList<User>>(){}.getType();
-            List<User> users = gson.fromJson(json, listType);
-            return users != null ? users : new ArrayList<>();
-        } catch (IOException e) {
-            System.err.println("Error cargando usuarios: " + e.getMessage());
-            return new ArrayList<>();
+
+    /**
+     * Abre una instantánea para lectura detectando el formato: gzip por su número
+     * mágico (0x1f 0x8b); JSON compacto e indentado se leen igual
+     */
+    private static Reader openSnapshotReader(Path path) throws IOException {
+        InputStream in = new BufferedInputStream(
+                Channels.newInputStream(FileChannel.open(path, StandardOpenOption.READ)), 64 * 1024);
+        in.mark(2);
+        int first = in.read();
+        int second = in.read();
+        in.reset();
+        if (first == 0x1f && second == 0x8b) {
+            in = new GZIPInputStream(in, 64 * 1024);
         }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
     }
-    
-    public static void saveUsers(List<User> users) {
+
+    /**
+     * Escritura de contenido sobre el flujo del archivo temporal
+     */
+    @FunctionalInterface
+    private interface ContentWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Reemplaza el archivo de forma atómica: escribe un temporal en el mismo directorio,
+     * lo fuerza a disco y lo mueve sobre el destino. Un lector nunca ve un archivo a medias.
+     */
+    private static void writeAtomically(Path target, ContentWriter content) throws IOException {
+        Path dir = target.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(dir, target.getFileName().toString() + ".", ".tmp");
         try {
-            String json = gson.toJson(users);
-            Files.writeString(Paths.get(USERS_FILE), json);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024);
+                content.write(out);
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        syncDirectory(dir);
+    }
+
+    /**
+     * Fuerza a disco la entrada de directorio del rename (no soportado en todos los sistemas)
+     */
+    private static void syncDirectory(Path dir) {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
         } catch (IOException e) {
-            System.err.println("Error guardando usuarios: " + e.getMessage());
+            // Windows no permite abrir directorios como canal; el rename ya es atómico
         }
     }
-    
+
+    // ========== USUARIOS ==========
+
+    /**
+     * Carga la colección; null si no se pudo leer
+     */
+    public static List<User> loadUsers() {
+        return USERS.load();
+    }
+
+    public static void saveUsers(List<User> users) {
+        USERS.saveAll(users);
+    }
+
     public static void saveUser(User user) {
-        List<User> users = loadUsers();
-        users.removeIf(u -> u.getId().equals(user.getId()));
-        users.add(user);
-        saveUsers(users);
+        USERS.append(List.of(user));
     }
-    
+
+    /**
+     * Registra varios cambios en el log con una sola escritura
+     */
+    public static void appendUsers(List<User> users) {
+        USERS.append(users);
+    }
+
+    /**
+     * Versión en disco de los usuarios; cambia con cada escritura de cualquier proceso
+     */
+    public static long usersVersion() {
+        return USERS.version();
+    }
+
+    /**
+     * Ejecuta un trabajo con los usuarios bloqueados para escritura, también frente a otros procesos
+     */
+    public static <R> R withUsersLock(Supplier<R> work) {
+        return USERS.exclusive(work);
+    }
+
+    /**
+     * Indica si los usuarios cambiaron en disco desde la última carga o escritura de este proceso
+     */
+    public static boolean usersChangedOnDisk() {
+        return USERS.changedOnDisk();
+    }
+
     // ========== PRODUCTOS ==========
-    
+
+    /**
+     * Carga la colección; null si no se pudo leer
+     */
     public static List<Product> loadProducts() {
-        try {
-            String json = Files.readString(Paths.get(PRODUCTS_FILE));
-            Type listType = new TypeToken<ArrayList<Product>>(){}.getType();
-            List<Product> products = gson.fromJson(json, listType);
-            return products != null ? products : new ArrayList<>();
-        } catch (IOException e) {
-            System.err.println("Error cargando productos: " + e.getMessage());
-            return new ArrayList<>();
-        }
+        return PRODUCTS.load();
     }
-    
+
     public static void saveProducts(List<Product> products) {
-        try {
-            String json = gson.toJson(products);
-            Files.writeString(Paths.get(PRODUCTS_FILE), json);
-        } catch (IOException e) {
-            System.err.println("Error guardando productos: " + e.getMessage());
-        }
+        PRODUCTS.saveAll(products);
     }
-    
+
     public static void saveProduct(Product product) {
-        List<Product> products = loadProducts();
-        products.removeIf(p -> p.getId().equals(product.getId()));
-        products.add(product);
-        saveProducts(products);
+        PRODUCTS.append(List.of(product));
+    }
+
+    /**
+     * Registra varios cambios en el log con una sola escritura
+     */
+    public static void appendProducts(List<Product> products) {
+        PRODUCTS.append(products);
+    }
+
+    /**
+     * Versión en disco de los productos; cambia con cada escritura de cualquier proceso
+     */
+    public static long productsVersion() {
+        return PRODUCTS.version();
+    }
+
+    /**
+     * Ejecuta un trabajo con los productos bloqueados para escritura, también frente a otros procesos
+     */
+    public static <R> R withProductsLock(Supplier<R> work) {
+        return PRODUCTS.exclusive(work);
     }
-    
+
+    /**
+     * Indica si los productos cambiaron en disco desde la última carga o escritura de este proceso
+     */
+    public static boolean productsChangedOnDisk() {
+        return PRODUCTS.changedOnDisk();
+    }
+
     // ========== ÓRDENES ==========
-    
+
+    /**
+     * Carga la colección; null si no se pudo leer
+     */
     public static List<Order> loadOrders() {
-        try {
-            String json = Files.readString(Paths.get(ORDERS_FILE));
-            Type listType = new TypeToken<ArrayList<Order>>(){}.getType();
-            List<Order> orders = gson.fromJson(json, listType);
-            return orders != null ? orders : new ArrayList<>();
-        } catch (IOException e) {
-            System.err.println("Error cargando órdenes: " + e.getMessage());
-            return new ArrayList<>();
-        }
+        return ORDERS.load();
     }
-    
+
     public static void saveOrders(List<Order> orders) {
-        try {
-            String json = gson.toJson(orders);
-            Files.writeString(Paths.get(ORDERS_FILE), json);
+        ORDERS.saveAll(orders);
+    }
+
+    public static void saveOrder(Order order) {
+        ORDERS.append(List.of(order));
+    }
+
+    /**
+     * Registra varios cambios en el log con una sola escritura
+     */
+    public static void appendOrders(List<Order> orders) {
+        ORDERS.append(orders);
+    }
+
+    /**
+     * Versión en disco de las órdenes; cambia con cada escritura de cualquier proceso
+     */
+    public static long ordersVersion() {
+        return ORDERS.version();
+    }
+
+    /**
+     * Ejecuta un trabajo con las órdenes bloqueadas para escritura, también frente a otros procesos
+     */
+    public static <R> R withOrdersLock(Supplier<R> work) {
+        return ORDERS.exclusive(work);
+    }
+
+    /**
+     * Indica si las órdenes cambiaron en disco desde la última carga o escritura de este proceso
+     */
+    public static boolean ordersChangedOnDisk() {
+        return ORDERS.changedOnDisk();
+    }
+
+    /**
+     * Recorre las órdenes guardadas una por una en streaming, sin cargar orders.json
+     * completo en memoria (por ejemplo para reportes sobre todo el historial)
+     * @throws UncheckedIOException si las órdenes no se pudieron leer
+     */
+    public static void forEachOrder(Consumer<Order> visitor) {
+        try (JsonRecordIterator<Order> orders = ORDERS.iterate()) {
+            orders.forEachRemaining(visitor);
         } catch (IOException e) {
-            System.err.println("Error guardando órdenes: " + e.getMessage());
+            throw new UncheckedIOException("Error recorriendo órdenes", e);
         }
     }
-    
-    public static void saveOrder(Order order) {
-        List<Order> orders = loadOrders();
-        orders.removeIf(o -> o.getId().equals(order.getId()));
-        orders.add(order);
-        saveOrders(orders);
+
+    /**
+     * Abre un iterador en streaming sobre las órdenes guardadas; debe cerrarse al terminar
+     */
+    public static JsonRecordIterator<Order> iterateOrders() throws IOException {
+        return ORDERS.iterate();
+    }
+
+    /**
+     * Compacta los logs de todas las colecciones dentro de sus instantáneas
+     */
+    public static void compactAll() {
+        for (Store<?> store : List.of(USERS, PRODUCTS, ORDERS)) {
+            try {
+                store.compact();
+            } catch (UncheckedIOException e) {
+                System.err.println(e.getMessage() + ": " + e.getCause().getMessage());
+            }
+        }
     }
-    
+
     /**
-     * Genera un ID único
+     * Genera un ID único, ordenable y sin colisiones entre hilos ni instancias
      */
     public static String generateId(String prefix) {
-        return prefix + "_" + System.currentTimeMillis();
+        return IdGenerator.nextId(prefix);
     }
-}
 
+    /**
+     * Instantánea JSON más log de cambios de una colección
+     * Lecturas (load, iterate) con el lock de lectura; append, saveAll y compact con el
+     * de escritura, más el FileLock del archivo de lock para excluir a otros procesos.
+     */
+    private static final class Store<T> {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Path snapshotPath;
+        private final Path logPath;
+        private final Path lockPath;
+        private final Path versionPath;
+        /** Solo lo usa exclusive(), con el lock de escritura tomado */
+        private FileChannel lockChannel;
+        /** Última versión escrita o vista por este proceso bajo el FileLock */
+        private long knownVersion = -1;
+        /** Estado de los archivos tras la última carga o escritura de este proceso */
+        private volatile FileState lastSeen;
+        private final Class<T> type;
+        private final Function<T, String> idOf;
+        private final String label;
+        /** Lo escriben también los lectores, todos con el mismo valor leído del log */
+        private volatile int pendingRecords = -1;
+        private boolean tailChecked = false;
+
+        Store(String snapshotFile, Class<T> type, Function<T, String> idOf, String label) {
+            this.snapshotPath = Paths.get(snapshotFile);
+            this.logPath = Paths.get(snapshotFile.replace(".json", ".log"));
+            this.lockPath = Paths.get(snapshotFile.replace(".json", ".lock"));
+            this.versionPath = Paths.get(snapshotFile.replace(".json", ".version"));
+            this.type = type;
+            this.idOf = idOf;
+            this.label = label;
+        }
+
+        /**
+         * Recuperación al inicio tras una caída durante una escritura.
+         * Un temporal completo cuyo destino falta o está dañado se promueve (la caída ocurrió
+         * entre el fsync y el rename); cualquier otro temporal se descarta porque el destino
+         * sigue intacto. Un destino ilegible sin temporal válido se aparta como .corrupt
+         * en lugar de leerse silenciosamente como una lista vacía, y si falta se crea vacío.
+         * Corre con el FileLock tomado: mientras tanto ninguna otra instancia está a mitad
+         * de una escritura, así que los temporales que queden son de escrituras interrumpidas.
+         */
+        void recover() {
+            exclusive(() -> {
+                try {
+                    boolean changed = false;
+                    Path dir = snapshotPath.toAbsolutePath().getParent();
+                    String tempPattern = snapshotPath.getFileName() + ".*.tmp";
+                    try (DirectoryStream<Path> temps = Files.newDirectoryStream(dir, tempPattern)) {
+                        for (Path temp : temps) {
+                            if (!isValidJson(snapshotPath) && isValidJson(temp)) {
+                                Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING,
+                                        StandardCopyOption.ATOMIC_MOVE);
+                                System.err.println("Recuperado " + snapshotPath.getFileName()
+                                        + " desde escritura interrumpida");
+                                changed = true;
+                            } else {
+                                Files.deleteIfExists(temp);
+                            }
+                        }
+                    }
+
+                    if (Files.exists(snapshotPath) && !isValidJson(snapshotPath)) {
+                        Path quarantine = Paths.get(snapshotPath + ".corrupt-" + System.currentTimeMillis());
+                        Files.move(snapshotPath, quarantine);
+                        System.err.println("Archivo dañado " + snapshotPath.getFileName()
+                                + " apartado en " + quarantine.getFileName());
+                        changed = true;
+                    }
+
+                    if (!Files.exists(snapshotPath)) {
+                        writeAtomically(snapshotPath, out -> out.write("[]".getBytes(StandardCharsets.UTF_8)));
+                        changed = true;
+                    }
+
+                    if (changed) {
+                        // Las demás instancias recargan la colección reparada
+                        bumpVersion();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Error recuperando " + label, e);
+                }
+                return null;
+            });
+        }
+
+        /**
+         * Carga la instantánea y aplica encima los cambios del log
+         * Devuelve null si la instantánea no se pudo leer
+         */
+        List<T> load() {
+            lock.readLock().lock();
+            try {
+                // El estado se toma antes de leer: un cambio durante la lectura se detecta después
+                FileState state = fileState();
+                List<T> merged = loadMerged();
+                if (merged != null) {
+                    lastSeen = state;
+                }
+                return merged;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Compara el estado actual de los archivos con el de la última carga o escritura
+         * Espera a que terminen las escrituras en curso de este proceso.
+         */
+        boolean changedOnDisk() {
+            lock.readLock().lock();
+            try {
+                FileState current = fileState();
+                return current == null || !current.equals(lastSeen);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Identidad, fecha y tamaño de la instantánea y del log; null si no se pudo leer
+         */
+        private FileState fileState() {
+            try {
+                BasicFileAttributes snapshot = Files.readAttributes(snapshotPath, BasicFileAttributes.class);
+                BasicFileAttributes log = Files.exists(logPath)
+                        ? Files.readAttributes(logPath, BasicFileAttributes.class) : null;
+                return new FileState(snapshot.fileKey(), snapshot.lastModifiedTime(), snapshot.size(),
+                        log != null ? log.lastModifiedTime() : null, log != null ? log.size() : -1);
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Devuelve null si la instantánea no se pudo leer
+         */
+        private List<T> loadMerged() {
+            List<T> merged = new ArrayList<>();
+            try (JsonRecordIterator<T> records = iterate()) {
+                records.forEachRemaining(merged::add);
+            } catch (IOException | JsonParseException e) {
+                System.err.println("Error cargando " + label + ": " + e.getMessage());
+                return null;
+            }
+            return merged;
+        }
+
+        /**
+         * Abre un recorrido en streaming de la instantánea con los cambios del log aplicados
+         */
+        JsonRecordIterator<T> iterate() throws IOException {
+            // El log y la instantánea se abren juntos bajo el lock; el archivo abierto sigue
+            // siendo legible aunque una compactación posterior lo reemplace
+            lock.readLock().lock();
+            try {
+                Map<String, T> logRecords = readLog();
+                Reader reader = openSnapshotReader(snapshotPath);
+                return new JsonRecordIterator<>(new JsonReader(reader), gson.getAdapter(type), logRecords, idOf);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Lee los registros del log en orden; una línea incompleta
+         * (escritura interrumpida) se descarta
+         */
+        private Map<String, T> readLog() {
+            Map<String, T> records = new LinkedHashMap<>();
+            int count = 0;
+            if (!Files.exists(logPath)) {
+                pendingRecords = 0;
+                return records;
+            }
+            try (BufferedReader reader = Files.newBufferedReader(logPath)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) continue;
+                    try {
+                        T entity = gson.fromJson(line, type);
+                        records.put(idOf.apply(entity), entity);
+                        count++;
+                    } catch (JsonParseException e) {
+                        System.err.println("Registro inválido en log de " + label + " descartado");
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error leyendo log de " + label + ": " + e.getMessage());
+            }
+            pendingRecords = count;
+            return records;
+        }
+
+        /**
+         * Reescribe la instantánea completa y vacía el log
+         * @throws UncheckedIOException si la instantánea no se pudo escribir
+         */
+        void saveAll(List<T> entities) {
+            exclusive(() -> {
+                try {
+                    writeAtomically(snapshotPath, out -> writeSnapshot(out, entities));
+                    Files.deleteIfExists(logPath);
+                    pendingRecords = 0;
+                    bumpVersion();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Error guardando " + label, e);
+                }
+                return null;
+            });
+        }
+
+        /**
+         * Serializa la colección elemento por elemento en el formato configurado
+         */
+        private void writeSnapshot(OutputStream out, List<T> entities) throws IOException {
+            GZIPOutputStream gzip = null;
+            if (storageFormat == StorageFormat.GZIP) {
+                gzip = new GZIPOutputStream(out, 64 * 1024);
+                out = gzip;
+            }
+            JsonWriter writer = gson.newJsonWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            if (storageFormat == StorageFormat.PRETTY) {
+                writer.setIndent("  ");
+            }
+            TypeAdapter<T> adapter = gson.getAdapter(type);
+            writer.beginArray();
+            for (T entity : entities) {
+                adapter.write(writer, entity);
+            }
+            writer.endArray();
+            writer.flush();
+            if (gzip != null) {
+                gzip.finish();
+            }
+        }
+
+        /**
+         * Agrega los registros al final del log con una sola escritura secuencial
+         * @throws UncheckedIOException si los registros no quedaron en disco
+         */
+        void append(List<T> entities) {
+            if (entities.isEmpty()) {
+                return;
+            }
+            // Serializar antes de tomar el lock: no se retiene a otros escritores mientras se genera el JSON
+            StringBuilder records = new StringBuilder();
+            for (T entity : entities) {
+                records.append(gson.toJson(entity)).append('\n');
+            }
+            exclusive(() -> {
+                appendLocked(records, entities.size());
+                return null;
+            });
+        }
+
+        private void appendLocked(StringBuilder records, int recordCount) {
+            StringBuilder lines = new StringBuilder();
+            if (!tailChecked) {
+                // Cerrar una línea que haya quedado a medias por una caída anterior
+                if (!logEndsWithNewline()) {
+                    lines.append('\n');
+                }
+                tailChecked = true;
+            }
+            lines.append(records);
+            try (FileChannel channel = FileChannel.open(logPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                // Pudo quedar una línea a medias: la próxima escritura la cierra
+                tailChecked = false;
+                throw new UncheckedIOException("Error guardando " + label, e);
+            }
+            bumpVersion();
+            if (pendingRecords < 0) {
+                pendingRecords = countLogRecords();
+            } else {
+                pendingRecords += recordCount;
+            }
+            if (pendingRecords >= COMPACTION_THRESHOLD) {
+                // Los registros ya están en el log: un fallo al compactar no invalida la escritura
+                try {
+                    compact();
+                } catch (UncheckedIOException e) {
+                    System.err.println("Error compactando " + label + ": " + e.getMessage());
+                }
+            }
+        }
+
+        private boolean logEndsWithNewline() {
+            try (RandomAccessFile file = new RandomAccessFile(logPath.toFile(), "r")) {
+                if (file.length() == 0) {
+                    return true;
+                }
+                file.seek(file.length() - 1);
+                return file.read() == '\n';
+            } catch (FileNotFoundException e) {
+                return true;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        private int countLogRecords() {
+            try (BufferedReader reader = Files.newBufferedReader(logPath)) {
+                return (int) reader.lines().filter(line -> !line.isBlank()).count();
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+
+        /**
+         * Vuelca el log dentro de la instantánea
+         */
+        void compact() {
+            exclusive(() -> {
+                if (Files.exists(logPath)) {
+                    List<T> merged = loadMerged();
+                    if (merged != null) {
+                        saveAll(merged);
+                    }
+                }
+                return null;
+            });
+        }
+
+        /**
+         * Ejecuta un trabajo con la colección bloqueada para escritura en este proceso y,
+         * con un FileLock, frente a otros procesos. Es reentrante: el FileLock se toma y
+         * se libera solo en el nivel más externo.
+         */
+        <R> R exclusive(Supplier<R> work) {
+            lock.writeLock().lock();
+            FileLock fileLock = null;
+            try {
+                if (lock.getWriteHoldCount() == 1) {
+                    fileLock = lockFile();
+                }
+                R result = work.get();
+                if (lock.getWriteHoldCount() == 1) {
+                    // Lo escrito por este proceso no cuenta como cambio externo
+                    lastSeen = fileState();
+                }
+                return result;
+            } finally {
+                if (fileLock != null) {
+                    try {
+                        fileLock.release();
+                    } catch (IOException e) {
+                        System.err.println("Error liberando lock de " + label + ": " + e.getMessage());
+                    }
+                }
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Toma el FileLock exclusivo, esperando si otro proceso lo tiene. Si otro proceso
+         * escribió desde la última vez, el estado del log que se tenía ya no vale.
+         * @throws UncheckedIOException si el lock no se pudo tomar: no se escribe sin coordinación
+         */
+        private FileLock lockFile() {
+            try {
+                if (lockChannel == null || !lockChannel.isOpen()) {
+                    // Se reabre si una interrupción durante lock() lo cerró
+                    lockChannel = FileChannel.open(lockPath,
+                            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                }
+                FileLock fileLock = lockChannel.lock();
+                long version = readVersion();
+                if (version != knownVersion) {
+                    tailChecked = false;
+                    pendingRecords = -1;
+                    knownVersion = version;
+                }
+                return fileLock;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error tomando lock de " + label, e);
+            }
+        }
+
+        /**
+         * Versión actual en disco; 0 si la colección nunca se escribió con lock
+         * Se puede llamar desde cualquier hilo, incluso interrumpido: usa su propio
+         * archivo abierto y no comparte el canal del FileLock.
+         */
+        long version() {
+            try {
+                return readVersion();
+            } catch (IOException e) {
+                System.err.println("Error leyendo versión de " + label + ": " + e.getMessage());
+                return -1;
+            }
+        }
+
+        private long readVersion() throws IOException {
+            // Los 8 bytes se leen y escriben de una vez, así un lector no ve una versión a medias
+            byte[] bytes = new byte[Long.BYTES];
+            try (RandomAccessFile file = new RandomAccessFile(versionPath.toFile(), "r")) {
+                if (file.read(bytes) < Long.BYTES) {
+                    return 0;
+                }
+                return ByteBuffer.wrap(bytes).getLong();
+            } catch (FileNotFoundException e) {
+                return 0;
+            }
+        }
+
+        /**
+         * Publica una escritura incrementando la versión (con el FileLock tomado)
+         */
+        private void bumpVersion() {
+            try {
+                long version = readVersion() + 1;
+                try (RandomAccessFile file = new RandomAccessFile(versionPath.toFile(), "rw")) {
+                    file.write(ByteBuffer.allocate(Long.BYTES).putLong(version).array());
+                }
+                knownVersion = version;
+            } catch (IOException e) {
+                System.err.println("Error actualizando versión de " + label + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Estado de los archivos de una colección; el fileKey (inodo) cambia con cada rename
+     */
+    private record FileState(Object snapshotKey, FileTime snapshotModified, long snapshotSize,
+                             FileTime logModified, long logSize) {
+    }
+}
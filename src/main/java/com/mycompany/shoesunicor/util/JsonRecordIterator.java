@@ -0,0 +1,107 @@
+package com.mycompany.shoesunicor.util;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Iterador que lee un arreglo JSON elemento por elemento con JsonReader,
+ * sin cargar el archivo completo ni la lista completa en memoria.
+ * Los registros del log de cambios (acotado por la compactación) reemplazan
+ * a los de la instantánea con el mismo ID; los que no existían se entregan al final.
+ * Debe cerrarse con try-with-resources.
+ * @author Victor Negrete
+ */
+public class JsonRecordIterator<T> implements Iterator<T>, AutoCloseable {
+    private final JsonReader reader;
+    private final TypeAdapter<T> adapter;
+    private final Map<String, T> overrides;
+    private final Function<T, String> idOf;
+    private Iterator<T> remainingOverrides;
+    private boolean arrayOpened = false;
+    private boolean arrayFinished = false;
+    private T next;
+
+    JsonRecordIterator(JsonReader reader, TypeAdapter<T> adapter,
+                       Map<String, T> overrides, Function<T, String> idOf) {
+        this.reader = reader;
+        this.adapter = adapter;
+        this.overrides = overrides;
+        this.idOf = idOf;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = advance();
+        }
+        return next != null;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T result = next;
+        next = null;
+        return result;
+    }
+
+    private T advance() {
+        while (!arrayFinished) {
+            T record = readSnapshotRecord();
+            if (record != null) {
+                T override = overrides.remove(idOf.apply(record));
+                return override != null ? override : record;
+            }
+        }
+        if (remainingOverrides == null) {
+            remainingOverrides = overrides.values().iterator();
+        }
+        return remainingOverrides.hasNext() ? remainingOverrides.next() : null;
+    }
+
+    /**
+     * Lee el siguiente elemento del arreglo; devuelve null al terminar o si el elemento es null
+     */
+    private T readSnapshotRecord() {
+        try {
+            if (!arrayOpened) {
+                arrayOpened = true;
+                try {
+                    reader.beginArray();
+                } catch (EOFException e) {
+                    // Archivo vacío: se trata como una colección vacía
+                    arrayFinished = true;
+                    return null;
+                }
+            }
+            if (!reader.hasNext()) {
+                reader.endArray();
+                arrayFinished = true;
+                return null;
+            }
+            return adapter.read(reader);
+        } catch (MalformedJsonException | IllegalStateException | NumberFormatException | DateTimeException e) {
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
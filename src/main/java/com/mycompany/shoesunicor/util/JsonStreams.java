@@ -0,0 +1,134 @@
+package com.mycompany.shoesunicor.util;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utilidades compartidas por los adaptadores Gson escritos a mano
+ * @author Victor Negrete
+ */
+final class JsonStreams {
+
+    private JsonStreams() {
+    }
+
+    /**
+     * Lee un string que puede venir como null
+     */
+    static String nextNullableString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    /**
+     * Lee un entero; un null conserva el valor actual (como Gson con campos primitivos)
+     * @throws JsonSyntaxException si el valor no es un entero válido
+     */
+    static int nextInt(JsonReader in, int current) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return current;
+        }
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException | IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * Lee un decimal; un null conserva el valor actual
+     * @throws JsonSyntaxException si el valor no es un número válido
+     */
+    static double nextDouble(JsonReader in, double current) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return current;
+        }
+        try {
+            return in.nextDouble();
+        } catch (NumberFormatException | IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * Lee un booleano; un null conserva el valor actual
+     * @throws JsonSyntaxException si el valor no es un booleano
+     */
+    static boolean nextBoolean(JsonReader in, boolean current) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return current;
+        }
+        try {
+            return in.nextBoolean();
+        } catch (IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * Lee el nombre de una constante de enum; null si falta o no existe (igual que Gson)
+     */
+    static <E extends Enum<E>> E nextEnum(JsonReader in, Class<E> type) throws IOException {
+        String name = nextNullableString(in);
+        if (name == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Lee un arreglo de strings; un null se trata como lista vacía
+     */
+    static List<String> nextStringList(JsonReader in) throws IOException {
+        List<String> values = new ArrayList<>();
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return values;
+        }
+        in.beginArray();
+        while (in.hasNext()) {
+            String value = nextNullableString(in);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        in.endArray();
+        return values;
+    }
+
+    /**
+     * Escribe un campo string omitiéndolo si es null (como Gson sin serializeNulls)
+     */
+    static void writeString(JsonWriter out, String name, String value) throws IOException {
+        if (value != null) {
+            out.name(name).value(value);
+        }
+    }
+
+    static void writeStringList(JsonWriter out, String name, List<String> values) throws IOException {
+        if (values == null) {
+            return;
+        }
+        out.name(name).beginArray();
+        for (String value : values) {
+            out.value(value);
+        }
+        out.endArray();
+    }
+}
@@ -1,26 +1,89 @@
 package com.mycompany.shoesunicor.util;
 
-import com.google.gson.*;
-import java.lang.reflect.Type;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.time.DateTimeException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 /**
  * Adaptador para serialización de LocalDateTime con Gson
+ * Lee y escribe directamente sobre el stream, sin crear objetos JsonElement
  * @author Victor Negrete
  */
-public class LocalDateTimeAdapter implements JsonSerializer<LocalDateTime>, JsonDeserializer<LocalDateTime> {
+public class LocalDateTimeAdapter extends TypeAdapter<LocalDateTime> {
     private static final DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
     
     @Override
-    public JsonElement serialize(LocalDateTime localDateTime, Type type, JsonSerializationContext context) {
-        return new JsonPrimitive(localDateTime.format(formatter));
+    public void write(JsonWriter out, LocalDateTime localDateTime) throws IOException {
+        if (localDateTime == null) {
+            out.nullValue();
+            return;
+        }
+        out.value(localDateTime.format(formatter));
     }
     
     @Override
-    public LocalDateTime deserialize(JsonElement json, Type type, JsonDeserializationContext context) 
-            throws JsonParseException {
-        return LocalDateTime.parse(json.getAsString(), formatter);
+    public LocalDateTime read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String text = in.nextString();
+        try {
+            return parse(text);
+        } catch (DateTimeException e) {
+            // Fecha imposible (mes 13, 30 de febrero...) o fuera del formato ISO
+            throw new JsonSyntaxException("Fecha inválida: " + text, e);
+        }
+    }
+    
+    /**
+     * Lectura rápida del formato que escribe la aplicación (yyyy-MM-ddTHH:mm:ss[.fraccion]);
+     * cualquier otra variante ISO se delega al DateTimeFormatter
+     */
+    static LocalDateTime parse(String text) {
+        int length = text.length();
+        if (length >= 19 && text.charAt(4) == '-' && text.charAt(7) == '-' && text.charAt(10) == 'T'
+                && text.charAt(13) == ':' && text.charAt(16) == ':'
+                && (length == 19 || (text.charAt(19) == '.' && length > 20 && length <= 29))) {
+            int year = digits(text, 0, 4);
+            int month = digits(text, 5, 7);
+            int day = digits(text, 8, 10);
+            int hour = digits(text, 11, 13);
+            int minute = digits(text, 14, 16);
+            int second = digits(text, 17, 19);
+            int nanos = 0;
+            if (length > 19) {
+                int fraction = digits(text, 20, length);
+                nanos = fraction < 0 ? -1 : fraction * POWERS_OF_TEN[29 - length];
+            }
+            if (year >= 0 && month >= 0 && day >= 0 && hour >= 0 && minute >= 0 && second >= 0 && nanos >= 0) {
+                return LocalDateTime.of(year, month, day, hour, minute, second, nanos);
+            }
+        }
+        return LocalDateTime.parse(text, formatter);
+    }
+    
+    private static final int[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000};
+    
+    /**
+     * Convierte el rango a entero; -1 si contiene algo que no sea un dígito
+     */
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
     }
 }
-
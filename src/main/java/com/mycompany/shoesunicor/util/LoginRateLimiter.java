@@ -0,0 +1,221 @@
+package com.mycompany.shoesunicor.util;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Límite de intentos de inicio de sesión
+ *
+ * Cada intento consume una ficha de dos cubetas (token bucket): la del nombre de
+ * usuario y una global. Si alguna está vacía el intento se rechaza antes de calcular
+ * ningún hash. Solo se registran usuarios que pasaron el límite global, así que la
+ * cantidad de cubetas crece a lo sumo al ritmo del límite global. Las cubetas se
+ * rellenan con el tiempo y un login exitoso vacía el historial del usuario.
+ *
+ * Cada cubeta es un único AtomicLong con el instante en que volverá a estar llena
+ * (algoritmo GCRA, equivalente a un token bucket): consumir una ficha es un
+ * compareAndSet, sin locks compartidos entre usuarios.
+ *
+ * Configuración (propiedades del sistema):
+ * - shoesunicor.login.user.burst: intentos seguidos por usuario (por defecto 5)
+ * - shoesunicor.login.user.refill.ms: ms para recuperar un intento por usuario (por defecto 30000)
+ * - shoesunicor.login.global.burst: intentos seguidos en total (por defecto 100)
+ * - shoesunicor.login.global.refill.ms: ms para recuperar un intento global (por defecto 50)
+ * @author Victor Negrete
+ */
+public class LoginRateLimiter {
+    private static final int MAX_TRACKED_USERS = 10_000;
+
+    private static LoginRateLimiter instance;
+
+    private final long userBurst;
+    private final long userIntervalNanos;
+    private final long globalBurst;
+    private final long globalIntervalNanos;
+
+    private final Map<String, AtomicLong> userBuckets = new ConcurrentHashMap<>();
+    private final AtomicLong globalBucket = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicBoolean pruning = new AtomicBoolean();
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejectedByUser = new LongAdder();
+    private final LongAdder rejectedGlobal = new LongAdder();
+    private final LongAdder successes = new LongAdder();
+
+    private LoginRateLimiter() {
+        this.userBurst = readLong("shoesunicor.login.user.burst", 5);
+        this.userIntervalNanos = TimeUnit.MILLISECONDS.toNanos(readLong("shoesunicor.login.user.refill.ms", 30_000));
+        this.globalBurst = readLong("shoesunicor.login.global.burst", 100);
+        this.globalIntervalNanos = TimeUnit.MILLISECONDS.toNanos(readLong("shoesunicor.login.global.refill.ms", 50));
+    }
+
+    public static synchronized LoginRateLimiter getInstance() {
+        if (instance == null) {
+            instance = new LoginRateLimiter();
+        }
+        return instance;
+    }
+
+    /**
+     * Consume un intento para el usuario
+     * @return 0 si el intento está permitido, o los milisegundos que faltan para poder reintentar
+     */
+    public long tryAcquire(String username) {
+        long now = System.nanoTime();
+        String key = normalize(username);
+
+        // Un usuario ya bloqueado se rechaza sin gastar fichas globales
+        AtomicLong userBucket = userBuckets.get(key);
+        if (userBucket != null) {
+            long userWait = waitTime(userBucket, now, userIntervalNanos, userBurst);
+            if (userWait > 0) {
+                rejectedByUser.increment();
+                return toMillis(userWait);
+            }
+        }
+
+        // La cubeta global se consulta antes de registrar al usuario: una ráfaga de
+        // nombres inventados no puede hacer crecer el mapa más rápido que el límite global
+        long globalWait = consume(globalBucket, now, globalIntervalNanos, globalBurst);
+        if (globalWait > 0) {
+            rejectedGlobal.increment();
+            return toMillis(globalWait);
+        }
+
+        if (userBucket == null) {
+            userBucket = userBuckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+        }
+        long userWait = consume(userBucket, now, userIntervalNanos, userBurst);
+        if (userWait > 0) {
+            rejectedByUser.increment();
+            return toMillis(userWait);
+        }
+
+        allowed.increment();
+        if (userBuckets.size() > MAX_TRACKED_USERS) {
+            prune(now);
+        }
+        return 0;
+    }
+
+    /**
+     * Un login exitoso olvida los intentos fallidos del usuario
+     */
+    public void onSuccess(String username) {
+        successes.increment();
+        userBuckets.remove(normalize(username));
+    }
+
+    public Stats getStats() {
+        return new Stats(allowed.sum(), rejectedByUser.sum(), rejectedGlobal.sum(),
+                successes.sum(), userBuckets.size());
+    }
+
+    /**
+     * Toma una ficha si la hay: el valor guardado es el instante en que la cubeta
+     * queda llena; cada ficha lo adelanta un intervalo y no puede adelantarse más
+     * de burst intervalos respecto del instante actual
+     * @return 0 si se tomó la ficha, o los nanosegundos hasta que haya una
+     */
+    private static long consume(AtomicLong bucket, long now, long intervalNanos, long burst) {
+        while (true) {
+            long fullAt = bucket.get();
+            long next = nextFullAt(fullAt, now, intervalNanos);
+            long wait = next - now - burst * intervalNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Igual que consume() pero sin tomar la ficha
+     */
+    private static long waitTime(AtomicLong bucket, long now, long intervalNanos, long burst) {
+        return Math.max(0, nextFullAt(bucket.get(), now, intervalNanos) - now - burst * intervalNanos);
+    }
+
+    private static long nextFullAt(long fullAt, long now, long intervalNanos) {
+        long base = fullAt == Long.MIN_VALUE || fullAt - now < 0 ? now : fullAt;
+        return base + intervalNanos;
+    }
+
+    /**
+     * Descarta las cubetas de usuarios que ya se rellenaron por completo
+     * Solo un hilo a la vez; los demás siguen sin esperar.
+     */
+    private void prune(long now) {
+        if (!pruning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Iterator<AtomicLong> it = userBuckets.values().iterator();
+            while (it.hasNext()) {
+                long fullAt = it.next().get();
+                if (fullAt == Long.MIN_VALUE || fullAt - now <= 0) {
+                    it.remove();
+                }
+            }
+        } finally {
+            pruning.set(false);
+        }
+    }
+
+    private static String normalize(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long toMillis(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    private static long readLong(String property, long defaultValue) {
+        String value = System.getProperty(property);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(1, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            System.err.println("Valor inválido para " + property + ": " + value + ", usando " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Contadores para monitoreo
+     */
+    public record Stats(long allowed, long rejectedByUser, long rejectedGlobal, long successes, int trackedUsers) {
+        @Override
+        public String toString() {
+            return allowed + " intentos permitidos, " + rejectedByUser + " rechazados por usuario, "
+                    + rejectedGlobal + " rechazados por límite global, " + successes + " exitosos, "
+                    + trackedUsers + " usuarios con intentos recientes";
+        }
+    }
+
+    /**
+     * Intento rechazado por exceso de intentos
+     */
+    public static class ThrottledException extends RuntimeException {
+        private final long retryAfterMillis;
+
+        public ThrottledException(long retryAfterMillis) {
+            super("Demasiados intentos de inicio de sesión, reintentar en " + retryAfterMillis + " ms");
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        public long getRetryAfterMillis() {
+            return retryAfterMillis;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.mycompany.shoesunicor.util;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.mycompany.shoesunicor.model.CartItem;
+import com.mycompany.shoesunicor.model.Order;
+import com.mycompany.shoesunicor.model.OrderStatus;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.mycompany.shoesunicor.util.JsonStreams.nextDouble;
+import static com.mycompany.shoesunicor.util.JsonStreams.nextEnum;
+import static com.mycompany.shoesunicor.util.JsonStreams.nextNullableString;
+import static com.mycompany.shoesunicor.util.JsonStreams.writeString;
+
+/**
+ * Adaptador Gson de Order escrito a mano (sin reflexión)
+ * Los items y la fecha se procesan con sus propios adaptadores sobre el mismo stream
+ * @author Victor Negrete
+ */
+public class OrderAdapter extends TypeAdapter<Order> {
+    private final CartItemAdapter itemAdapter = new CartItemAdapter();
+    private final LocalDateTimeAdapter dateAdapter = new LocalDateTimeAdapter();
+
+    @Override
+    public void write(JsonWriter out, Order order) throws IOException {
+        out.beginObject();
+        writeString(out, "id", order.getId());
+        writeString(out, "userId", order.getUserId());
+        writeString(out, "username", order.getUsername());
+        if (order.getItems() != null) {
+            out.name("items").beginArray();
+            for (CartItem item : order.getItems()) {
+                itemAdapter.write(out, item);
+            }
+            out.endArray();
+        }
+        out.name("total").value(order.getTotal());
+        if (order.getStatus() != null) {
+            out.name("status").value(order.getStatus().name());
+        }
+        if (order.getOrderDate() != null) {
+            out.name("orderDate");
+            dateAdapter.write(out, order.getOrderDate());
+        }
+        writeString(out, "shippingAddress", order.getShippingAddress());
+        out.endObject();
+    }
+
+    @Override
+    public Order read(JsonReader in) throws IOException {
+        Order order = new Order();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id" -> order.setId(nextNullableString(in));
+                case "userId" -> order.setUserId(nextNullableString(in));
+                case "username" -> order.setUsername(nextNullableString(in));
+                case "items" -> order.setItems(readItems(in));
+                case "total" -> order.setTotal(nextDouble(in, order.getTotal()));
+                case "status" -> order.setStatus(nextEnum(in, OrderStatus.class));
+                case "orderDate" -> order.setOrderDate(dateAdapter.read(in));
+                case "shippingAddress" -> order.setShippingAddress(nextNullableString(in));
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return order;
+    }
+
+    private List<CartItem> readItems(JsonReader in) throws IOException {
+        List<CartItem> items = new ArrayList<>();
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return items;
+        }
+        in.beginArray();
+        while (in.hasNext()) {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+            } else {
+                items.add(itemAdapter.read(in));
+            }
+        }
+        in.endArray();
+        return items;
+    }
+}
@@ -0,0 +1,285 @@
+package com.mycompany.shoesunicor.util;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servicio de hash de contraseñas
+ *
+ * Usa PBKDF2 con HMAC-SHA256 y sal aleatoria de 16 bytes. El hash guardado es
+ * versionado e incluye el costo con el que se generó:
+ * "pbkdf2-sha256$<iteraciones>$<sal base64>$<hash base64>", de modo que subir el
+ * costo no invalida las contraseñas existentes. También reconoce los hashes SHA-256
+ * sin sal de versiones anteriores (64 caracteres hexadecimales); needsRehash() indica
+ * cuándo conviene reemplazar un hash al iniciar sesión.
+ *
+ * Cada verificación cuesta decenas de milisegundos, así que las versiones asíncronas
+ * corren en un pool acotado de hilos: nunca en el hilo de JavaFX y sin que una ráfaga
+ * de intentos de login acapare toda la CPU.
+ *
+ * El costo se configura con -Dshoesunicor.password.iterations (por defecto 210000).
+ * Para elegirlo según el hardware:
+ * mvn compile exec:java -Dexec.mainClass=com.mycompany.shoesunicor.util.PasswordService -Dexec.args="100"
+ * donde 100 es la latencia máxima en ms aceptable para el p99 de una verificación.
+ * @author Victor Negrete
+ */
+public class PasswordService {
+    public static final String ITERATIONS_PROPERTY = "shoesunicor.password.iterations";
+    public static final int DEFAULT_ITERATIONS = 210_000;
+    private static final int MIN_ITERATIONS = 10_000;
+
+    private static final String PREFIX = "pbkdf2-sha256";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BITS = 256;
+    private static final int MAX_QUEUED = 256;
+
+    private static PasswordService instance;
+
+    private final int iterations;
+    private final ExecutorService executor;
+    private final SecureRandom random = new SecureRandom();
+    /** Hash de referencia para gastar el mismo tiempo cuando el usuario no existe (se crea al primer uso) */
+    private volatile String dummyHash;
+
+    private PasswordService(int iterations) {
+        this.iterations = iterations;
+        int workers = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED),
+                r -> {
+                    Thread thread = new Thread(r, "password-hasher-" + counter.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        ((ThreadPoolExecutor) executor).allowCoreThreadTimeOut(true);
+    }
+
+    public static synchronized PasswordService getInstance() {
+        if (instance == null) {
+            instance = new PasswordService(readIterations());
+        }
+        return instance;
+    }
+
+    /**
+     * Genera el hash versionado de una contraseña con el costo configurado
+     */
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] key = pbkdf2(password, salt, iterations);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(key);
+    }
+
+    /**
+     * Verifica una contraseña contra un hash guardado (PBKDF2 o SHA-256 heredado)
+     * Si no hay hash (usuario inexistente) igual se calcula uno, para no revelar
+     * por el tiempo de respuesta qué usuarios existen.
+     */
+    public boolean verify(String password, String storedHash) {
+        if (password == null || storedHash == null) {
+            verifyPbkdf2("", getDummyHash());
+            return false;
+        }
+        if (isLegacy(storedHash)) {
+            byte[] expected = HexFormat.of().parseHex(storedHash.toLowerCase());
+            return MessageDigest.isEqual(sha256(password), expected);
+        }
+        return verifyPbkdf2(password, storedHash);
+    }
+
+    /**
+     * Indica si un hash debe regenerarse: formato heredado o costo menor al configurado
+     */
+    public boolean needsRehash(String storedHash) {
+        if (storedHash == null || isLegacy(storedHash)) {
+            return true;
+        }
+        String[] parts = storedHash.split("\\$");
+        try {
+            return parts.length != 4 || !PREFIX.equals(parts[0]) || Integer.parseInt(parts[1]) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Ejecuta en el pool de hash un trabajo que verifica o genera contraseñas
+     * Si el pool está saturado el futuro falla de inmediato con SaturatedException
+     * en lugar de encolar sin límite.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> work) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(work.call());
+                } catch (Exception | Error e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new SaturatedException(e));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    private String getDummyHash() {
+        String hash = dummyHash;
+        if (hash == null) {
+            hash = hash("dummy-password");
+            dummyHash = hash;
+        }
+        return hash;
+    }
+
+    private boolean verifyPbkdf2(String password, String storedHash) {
+        String[] parts = storedHash.split("\\$");
+        if (parts.length != 4 || !PREFIX.equals(parts[0])) {
+            return false;
+        }
+        try {
+            int cost = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            return MessageDigest.isEqual(pbkdf2(password, salt, cost), expected);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Hash de contraseña con formato inválido");
+            return false;
+        }
+    }
+
+    private static boolean isLegacy(String storedHash) {
+        if (storedHash.length() != 64) {
+            return false;
+        }
+        for (int i = 0; i < storedHash.length(); i++) {
+            if (Character.digit(storedHash.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int cost) {
+        char[] chars = password.toCharArray();
+        PBEKeySpec spec = new PBEKeySpec(chars, salt, cost, KEY_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 no disponible", e);
+        } finally {
+            spec.clearPassword();
+            Arrays.fill(chars, '\0');
+        }
+    }
+
+    private static byte[] sha256(String password) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private static int readIterations() {
+        String value = System.getProperty(ITERATIONS_PROPERTY);
+        int cost = DEFAULT_ITERATIONS;
+        if (value != null) {
+            try {
+                cost = Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                System.err.println("Costo de contraseñas inválido: " + value + ", usando " + DEFAULT_ITERATIONS);
+            }
+        }
+        return Math.max(MIN_ITERATIONS, cost);
+    }
+
+    /**
+     * Benchmark para elegir el costo: mide la latencia de verificación con varios
+     * costos, con tantos hilos ocupados a la vez como el pool real, y recomienda el
+     * mayor costo cuyo p99 queda bajo el objetivo.
+     * Uso: PasswordService [p99 objetivo en ms] [muestras por costo]
+     */
+    public static void main(String[] args) throws Exception {
+        double targetMs = args.length > 0 ? Double.parseDouble(args[0]) : 100;
+        int samples = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+        int workers = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+        int[] candidates = {50_000, 100_000, 210_000, 310_000, 600_000};
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        int recommended = MIN_ITERATIONS;
+        try {
+            byte[] salt = new byte[SALT_BYTES];
+            // Calentamiento para que el JIT compile HMAC-SHA256 antes de medir
+            measure(pool, salt, candidates[0], samples);
+            for (int cost : candidates) {
+                long[] latencies = measure(pool, salt, cost, samples);
+                Arrays.sort(latencies);
+                double p50 = latencies[samples / 2] / 1e6;
+                double p99 = latencies[Math.min(samples - 1, (int) Math.ceil(samples * 0.99) - 1)] / 1e6;
+                System.out.printf("%,9d iteraciones: p50 %7.1f ms, p99 %7.1f ms (%d hilos, %d muestras)%n",
+                        cost, p50, p99, workers, samples);
+                if (p99 <= targetMs) {
+                    recommended = cost;
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        System.out.println("Costo recomendado para p99 <= " + targetMs + " ms: -D" + ITERATIONS_PROPERTY + "=" + recommended);
+    }
+
+    private static long[] measure(ExecutorService pool, byte[] salt, int cost, int samples) throws Exception {
+        List<Future<Long>> timings = new ArrayList<>();
+        for (int i = 0; i < samples; i++) {
+            timings.add(pool.submit(() -> {
+                long start = System.nanoTime();
+                pbkdf2("contraseña-de-prueba", salt, cost);
+                return System.nanoTime() - start;
+            }));
+        }
+        long[] latencies = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            latencies[i] = timings.get(i).get();
+        }
+        return latencies;
+    }
+
+    /**
+     * Trabajo rechazado porque el pool de hash tiene la cola llena (sobrecarga temporal)
+     */
+    public static class SaturatedException extends RuntimeException {
+        public SaturatedException(Throwable cause) {
+            super("Pool de hash de contraseñas saturado", cause);
+        }
+    }
+}
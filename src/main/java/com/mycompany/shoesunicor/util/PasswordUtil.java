@@ -1,40 +0,0 @@
-package com.mycompany.shoesunicor.util;
-
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-
-/**
- * Utilidades para manejo de contraseñas
- * @author Victor Negrete
- */
-public class PasswordUtil {
-    
-    /**
-     * Encripta una contraseña usando SHA-256
-     */
-    public static String hashPassword(String password) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(password.getBytes());
-            StringBuilder hexString = new StringBuilder();
-            
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
-            }
-            
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Error al encriptar contraseña", e);
-        }
-    }
-    
-    /**
-     * Verifica si una contraseña coincide con su hash
-     */
-    public static boolean verifyPassword(String password, String hashedPassword) {
-        return hashPassword(password).equals(hashedPassword);
-    }
-}
-
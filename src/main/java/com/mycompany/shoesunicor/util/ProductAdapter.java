@@ -0,0 +1,60 @@
+package com.mycompany.shoesunicor.util;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.mycompany.shoesunicor.model.Product;
+
+import java.io.IOException;
+
+import static com.mycompany.shoesunicor.util.JsonStreams.nextBoolean;
+import static com.mycompany.shoesunicor.util.JsonStreams.nextDouble;
+import static com.mycompany.shoesunicor.util.JsonStreams.nextInt;
+import static com.mycompany.shoesunicor.util.JsonStreams.nextNullableString;
+import static com.mycompany.shoesunicor.util.JsonStreams.writeString;
+
+/**
+ * Adaptador Gson de Product escrito a mano (sin reflexión)
+ * Campos desconocidos se ignoran y los ausentes o null conservan el valor por defecto;
+ * un valor mal formado lanza JsonSyntaxException, como el adaptador reflexivo de Gson
+ * @author Victor Negrete
+ */
+public class ProductAdapter extends TypeAdapter<Product> {
+
+    @Override
+    public void write(JsonWriter out, Product product) throws IOException {
+        out.beginObject();
+        writeString(out, "id", product.getId());
+        writeString(out, "name", product.getName());
+        writeString(out, "description", product.getDescription());
+        out.name("price").value(product.getPrice());
+        out.name("stock").value(product.getStock());
+        writeString(out, "imagePath", product.getImagePath());
+        writeString(out, "category", product.getCategory());
+        writeString(out, "brand", product.getBrand());
+        out.name("active").value(product.isActive());
+        out.endObject();
+    }
+
+    @Override
+    public Product read(JsonReader in) throws IOException {
+        Product product = new Product();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id" -> product.setId(nextNullableString(in));
+                case "name" -> product.setName(nextNullableString(in));
+                case "description" -> product.setDescription(nextNullableString(in));
+                case "price" -> product.setPrice(nextDouble(in, product.getPrice()));
+                case "stock" -> product.setStock(nextInt(in, product.getStock()));
+                case "imagePath" -> product.setImagePath(nextNullableString(in));
+                case "category" -> product.setCategory(nextNullableString(in));
+                case "brand" -> product.setBrand(nextNullableString(in));
+                case "active" -> product.setActive(nextBoolean(in, product.isActive()));
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return product;
+    }
+}
@@ -0,0 +1,111 @@
+package com.mycompany.shoesunicor.util;
+
+import javafx.animation.PauseTransition;
+import javafx.scene.Node;
+import javafx.util.Duration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Búsqueda en vivo para campos de texto
+ *
+ * Espera a que el usuario deje de escribir (debounce) antes de buscar, ejecuta la
+ * búsqueda fuera del hilo de JavaFX con DataLoadService (una tecla nueva cancela la
+ * búsqueda en curso) y guarda los resultados de las consultas recientes, de modo que
+ * volver a una consulta ya hecha (por ejemplo al borrar una letra) es inmediato.
+ * Los resultados se entregan en el hilo de JavaFX.
+ * @author Victor Negrete
+ */
+public class SearchPipeline<T> {
+    private final Function<String, T> search;
+    private final Consumer<T> onResults;
+    private final PauseTransition debounce;
+    private final DataLoadService<SearchResult<T>> loader;
+    private final Map<String, T> recentResults;
+    private int generation = 0;
+
+    /**
+     * @param owner vista dueña de la búsqueda; al salir de la escena se cancela la búsqueda en curso
+     * @param delay tiempo sin escribir antes de buscar
+     * @param cacheSize cantidad de consultas recientes que se recuerdan
+     * @param search búsqueda a ejecutar en segundo plano; recibe la consulta normalizada (sin espacios extremos, en minúsculas)
+     * @param onResults recibe los resultados en el hilo de JavaFX
+     * @param onError recibe el error de una búsqueda fallida en el hilo de JavaFX
+     */
+    public SearchPipeline(Node owner, Duration delay, int cacheSize,
+                          Function<String, T> search, Consumer<T> onResults, Consumer<Throwable> onError) {
+        this.search = search;
+        this.onResults = onResults;
+        this.debounce = new PauseTransition(delay);
+        this.recentResults = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, T> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.loader = new DataLoadService<>(owner, result -> {
+            if (result.generation() == generation) {
+                recentResults.put(result.query(), result.value());
+            }
+            onResults.accept(result.value());
+        }, onError);
+    }
+
+    /**
+     * Registra un cambio en el texto; la búsqueda se lanza cuando deja de escribir
+     */
+    public void submit(String query) {
+        String key = normalize(query);
+        if (deliverCached(key)) {
+            return;
+        }
+        debounce.setOnFinished(e -> start(key));
+        debounce.playFromStart();
+    }
+
+    /**
+     * Busca de inmediato, sin esperar
+     */
+    public void submitNow(String query) {
+        String key = normalize(query);
+        if (deliverCached(key)) {
+            return;
+        }
+        debounce.stop();
+        start(key);
+    }
+
+    /**
+     * Olvida los resultados guardados (por ejemplo al recargar el catálogo)
+     */
+    public void invalidate() {
+        generation++;
+        recentResults.clear();
+    }
+
+    private boolean deliverCached(String key) {
+        T cached = recentResults.get(key);
+        if (cached == null) {
+            return false;
+        }
+        debounce.stop();
+        loader.cancel();
+        onResults.accept(cached);
+        return true;
+    }
+
+    private void start(String key) {
+        int currentGeneration = generation;
+        loader.load(() -> new SearchResult<>(key, currentGeneration, search.apply(key)));
+    }
+
+    private static String normalize(String query) {
+        return query == null ? "" : query.trim().toLowerCase();
+    }
+
+    private record SearchResult<T>(String query, int generation, T value) {
+    }
+}
@@ -2,23 +2,54 @@ package com.mycompany.shoesunicor.util;
 
 import com.mycompany.shoesunicor.model.User;
 import com.mycompany.shoesunicor.model.CartItem;
+import com.mycompany.shoesunicor.repository.UserRepository;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Gestión de sesión del usuario actual
+ *
+ * El carrito se indexa por ID de producto (agregar, cambiar cantidad y quitar son O(1)
+ * salvo quitar de la lista visible) y mantiene el total y la cantidad de artículos de
+ * forma incremental como propiedades observables, para enlazarlas en la interfaz sin
+ * recorrer el carrito en cada cambio. Las cantidades deben cambiarse con
+ * updateCartQuantity(), no con CartItem.setQuantity(), para que los totales sigan al día.
  * @author Victor Negrete
  */
 public class Session {
     private static Session instance;
     private User currentUser;
     private ObservableList<CartItem> cart;
+    private ObservableList<CartItem> cartView;
+    private final Map<String, CartItem> cartByProduct = new HashMap<>();
+    /** Total exacto en decimal; la propiedad publica su valor como double */
+    private BigDecimal cartTotalExact = BigDecimal.ZERO;
+    private final ReadOnlyDoubleWrapper cartTotal = new ReadOnlyDoubleWrapper(0);
+    private final ReadOnlyIntegerWrapper cartItemCount = new ReadOnlyIntegerWrapper(0);
     
-    private Session() {
+    /**
+     * Crea una sesión independiente (una por cliente del servidor HTTP, ver SessionRegistry)
+     * Una sesión no es segura entre hilos: quien la comparte debe serializar su uso,
+     * como hace SessionRegistry.Entry.call().
+     */
+    public Session() {
         this.cart = FXCollections.observableArrayList();
+        this.cartView = FXCollections.unmodifiableObservableList(cart);
     }
     
-    public static Session getInstance() {
+    /**
+     * Sesión de la aplicación de escritorio (un único usuario por proceso)
+     * El modo servidor crea una sesión por cliente y las registra en SessionRegistry.
+     */
+    public static synchronized Session getInstance() {
         if (instance == null) {
             instance = new Session();
         }
@@ -27,63 +58,117 @@ public class Session {
     
     public void login(User user) {
         this.currentUser = user;
-        this.cart.clear();
+        clearCart();
     }
     
     public void logout() {
         this.currentUser = null;
-        this.cart.clear();
+        clearCart();
     }
     
     public boolean isLoggedIn() {
         return currentUser != null;
     }
     
+    /**
+     * Usuario de la sesión, en su versión vigente
+     * Una recarga de usuarios (por ejemplo tras una escritura de otra instancia) reemplaza
+     * las instancias: se busca de nuevo por ID para no usar ni modificar una copia obsoleta.
+     */
     public User getCurrentUser() {
-        return currentUser;
+        User user = currentUser;
+        if (user == null) {
+            return null;
+        }
+        User current = UserRepository.getInstance().findById(user.getId());
+        return current != null ? current : user;
     }
     
     public void setCurrentUser(User user) {
         this.currentUser = user;
     }
     
+    /**
+     * Ítems del carrito en orden de llegada (solo lectura; se modifica con los métodos de la sesión)
+     */
     public ObservableList<CartItem> getCart() {
-        return cart;
+        return cartView;
+    }
+    
+    public CartItem getCartItem(String productId) {
+        return cartByProduct.get(productId);
     }
     
     public void addToCart(CartItem item) {
-        // Buscar si el producto ya está en el carrito
-        for (CartItem cartItem : cart) {
-            if (cartItem.getProductId().equals(item.getProductId())) {
-                cartItem.setQuantity(cartItem.getQuantity() + item.getQuantity());
-                return;
-            }
+        // Si el producto ya está en el carrito se suma la cantidad
+        CartItem existing = cartByProduct.get(item.getProductId());
+        if (existing != null) {
+            updateCartQuantity(existing.getProductId(), existing.getQuantity() + item.getQuantity());
+            return;
         }
+        cartByProduct.put(item.getProductId(), item);
         cart.add(item);
+        adjustTotals(item.getPrice(), item.getQuantity());
+    }
+    
+    /**
+     * Cambia la cantidad de un producto del carrito; con cantidad 0 o menor lo quita
+     */
+    public void updateCartQuantity(String productId, int quantity) {
+        CartItem item = cartByProduct.get(productId);
+        if (item == null) {
+            return;
+        }
+        if (quantity <= 0) {
+            removeFromCart(item);
+            return;
+        }
+        int delta = quantity - item.getQuantity();
+        item.setQuantity(quantity);
+        adjustTotals(item.getPrice(), delta);
     }
     
     public void removeFromCart(CartItem item) {
-        cart.remove(item);
+        CartItem removed = cartByProduct.remove(item.getProductId());
+        if (removed != null) {
+            cart.remove(removed);
+            adjustTotals(removed.getPrice(), -removed.getQuantity());
+        }
     }
     
     public void clearCart() {
+        cartByProduct.clear();
         cart.clear();
+        cartTotalExact = BigDecimal.ZERO;
+        cartTotal.set(0);
+        cartItemCount.set(0);
     }
     
     public double getCartTotal() {
-        return cart.stream()
-                .mapToDouble(CartItem::getSubtotal)
-                .sum();
+        return cartTotal.get();
     }
     
     public int getCartItemCount() {
-        return cart.stream()
-                .mapToInt(CartItem::getQuantity)
-                .sum();
+        return cartItemCount.get();
+    }
+    
+    public ReadOnlyDoubleProperty cartTotalProperty() {
+        return cartTotal.getReadOnlyProperty();
+    }
+    
+    public ReadOnlyIntegerProperty cartItemCountProperty() {
+        return cartItemCount.getReadOnlyProperty();
+    }
+    
+    private void adjustTotals(double price, int quantityDelta) {
+        cartTotalExact = cartTotalExact.add(BigDecimal.valueOf(price).multiply(BigDecimal.valueOf(quantityDelta)));
+        cartTotal.set(cartTotalExact.doubleValue());
+        cartItemCount.set(cartItemCount.get() + quantityDelta);
     }
     
     public boolean isAdmin() {
-        return currentUser != null && currentUser.getRole().name().equals("ADMIN");
+        User user = getCurrentUser();
+        return user != null && user.getRole().name().equals("ADMIN");
     }
 }
 
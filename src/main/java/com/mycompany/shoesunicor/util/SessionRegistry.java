@@ -0,0 +1,197 @@
+package com.mycompany.shoesunicor.util;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Registro de sesiones abiertas, indexadas por token
+ *
+ * Permite atender a muchos compradores en un mismo proceso: cada uno tiene su propia
+ * Session (usuario y carrito) y los controladores reciben la sesión explícitamente.
+ * Las peticiones de un mismo cliente se serializan con un lock propio de su sesión,
+ * sin bloquear a los demás. Una sesión sin uso durante el tiempo de inactividad
+ * configurado expira: se cierra y su token deja de ser válido.
+ *
+ * El tiempo de inactividad se configura en minutos con -Dshoesunicor.session.idle.minutes
+ * (por defecto 30). La aplicación de escritorio no usa el registro: tiene una única
+ * sesión, Session.getInstance().
+ * @author Victor Negrete
+ */
+public class SessionRegistry implements AutoCloseable {
+    public static final String IDLE_PROPERTY = "shoesunicor.session.idle.minutes";
+    private static final long DEFAULT_IDLE_MINUTES = 30;
+    private static final int TOKEN_BYTES = 32;
+
+    private final Map<String, Entry> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final long idleNanos;
+    private final ScheduledExecutorService sweeper;
+    private final LongAdder expired = new LongAdder();
+
+    /**
+     * Registro con el tiempo de inactividad configurado
+     */
+    public SessionRegistry() {
+        this(Duration.ofMinutes(readIdleMinutes()));
+    }
+
+    public SessionRegistry(Duration idleTimeout) {
+        this.idleNanos = idleTimeout.toNanos();
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "session-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Revisar varias veces por período de inactividad, como mucho una vez por minuto
+        long periodMillis = Math.max(1000, Math.min(60_000, idleTimeout.toMillis() / 4));
+        sweeper.scheduleWithFixedDelay(this::expireIdle, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registra una sesión (ya autenticada) y devuelve su token
+     */
+    public String register(Session session) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        String token;
+        do {
+            random.nextBytes(bytes);
+            token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        } while (sessions.putIfAbsent(token, new Entry(session)) != null);
+        return token;
+    }
+
+    /**
+     * Busca la sesión de un token y la marca como usada
+     * Devuelve null si el token no existe o la sesión ya expiró.
+     */
+    public Entry find(String token) {
+        if (token == null) {
+            return null;
+        }
+        Entry entry = sessions.get(token);
+        if (entry == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (entry.isIdle(now, idleNanos) && expire(token, entry)) {
+            return null;
+        }
+        entry.touch(now);
+        return entry;
+    }
+
+    /**
+     * Quita una sesión del registro (logout); devuelve la entrada quitada o null
+     */
+    public Entry remove(String token) {
+        return token != null ? sessions.remove(token) : null;
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Cantidad de sesiones que expiraron por inactividad desde el inicio
+     */
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Expira las sesiones inactivas; las que están atendiendo una petición se respetan
+     */
+    private void expireIdle() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<String, Entry>> it = sessions.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Entry> e = it.next();
+            if (e.getValue().isIdle(now, idleNanos)) {
+                expire(e.getKey(), e.getValue());
+            }
+        }
+    }
+
+    /**
+     * @return true si la sesión expiró (o ya no estaba registrada)
+     */
+    private boolean expire(String token, Entry entry) {
+        if (!entry.lock.tryLock()) {
+            return false; // En uso ahora mismo: no está inactiva
+        }
+        try {
+            if (!entry.isIdle(System.nanoTime(), idleNanos)) {
+                return false;
+            }
+            if (sessions.remove(token, entry)) {
+                entry.session.logout();
+                expired.increment();
+            }
+            return true;
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    private static long readIdleMinutes() {
+        String value = System.getProperty(IDLE_PROPERTY);
+        if (value != null) {
+            try {
+                return Math.max(1, Long.parseLong(value.trim()));
+            } catch (NumberFormatException e) {
+                System.err.println("Tiempo de inactividad inválido: " + value + ", usando " + DEFAULT_IDLE_MINUTES + " minutos");
+            }
+        }
+        return DEFAULT_IDLE_MINUTES;
+    }
+
+    /**
+     * Sesión registrada con su lock y su último uso
+     */
+    public static class Entry {
+        private final Session session;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile long lastAccess = System.nanoTime();
+
+        private Entry(Session session) {
+            this.session = session;
+        }
+
+        /**
+         * Ejecuta un trabajo con la sesión, sin otras peticiones de la misma sesión en paralelo
+         * Se usa un ReentrantLock (no synchronized) para no fijar hilos virtuales durante esperas de disco.
+         */
+        public <T> T call(Function<Session, T> work) {
+            lock.lock();
+            try {
+                touch(System.nanoTime());
+                return work.apply(session);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void touch(long now) {
+            lastAccess = now;
+        }
+
+        private boolean isIdle(long now, long idleNanos) {
+            return now - lastAccess > idleNanos;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.mycompany.shoesunicor.util;
+
+/**
+ * Formato en disco de las instantáneas JSON
+ * Se configura con la propiedad de sistema shoesunicor.storage.format
+ * (COMPACT, GZIP o PRETTY). Al leer, el formato se detecta automáticamente,
+ * así que cambiarlo no invalida los archivos existentes.
+ * @author Victor Negrete
+ */
+public enum StorageFormat {
+    COMPACT("JSON compacto"),
+    GZIP("JSON comprimido con gzip"),
+    PRETTY("JSON indentado (depuración)");
+
+    public static final String PROPERTY = "shoesunicor.storage.format";
+
+    private final String displayName;
+
+    StorageFormat(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Lee el formato configurado; COMPACT si no se indica o no es válido
+     */
+    public static StorageFormat fromSystemProperty() {
+        String value = System.getProperty(PROPERTY);
+        if (value == null || value.isBlank()) {
+            return COMPACT;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Formato de almacenamiento desconocido '" + value + "', se usa COMPACT");
+            return COMPACT;
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.mycompany.shoesunicor.util;
+
+import com.mycompany.shoesunicor.model.Product;
+import com.mycompany.shoesunicor.repository.ProductRepository;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generación de miniaturas de las imágenes de productos
+ *
+ * Por cada imagen se generan variantes de 40 px (tabla de admin), 220 px (tarjetas)
+ * y 400 px (detalle), en paralelo con un ForkJoinPool. Se guardan junto al original,
+ * en la carpeta .thumbs/ de su directorio, con el hash del contenido en el nombre:
+ * "jordan 1 azules-<hash>-220.png". Si el original cambia, cambia el hash y la
+ * variante vieja deja de usarse. resolve() elige la variante más pequeña que cubre
+ * el tamaño pedido, o el original si no hay ninguna.
+ *
+ * Se ejecuta desde el panel de administración o por línea de comandos:
+ * mvn compile exec:java -Dexec.mainClass=com.mycompany.shoesunicor.util.ThumbnailGenerator
+ * @author Victor Negrete
+ */
+public class ThumbnailGenerator {
+    public static final int[] SIZES = {40, 220, 400};
+    private static final String THUMBS_DIR = ".thumbs";
+    private static final int HASH_LENGTH = 12;
+
+    /** ruta original → hash del contenido (válido mientras no cambien fecha ni tamaño) */
+    private static final Map<Path, ContentHash> hashes = new ConcurrentHashMap<>();
+
+    /**
+     * Genera las miniaturas de las imágenes de todos los productos
+     */
+    public static Result generateForProducts() {
+        Set<String> paths = new LinkedHashSet<>();
+        for (Product product : ProductRepository.getInstance().findAll()) {
+            if (product.getImagePath() != null && !product.getImagePath().isEmpty()) {
+                paths.add(product.getImagePath());
+            }
+        }
+        return generate(new ArrayList<>(paths));
+    }
+
+    /**
+     * Genera las miniaturas de las imágenes indicadas; las que ya existen no se regeneran
+     */
+    public static Result generate(List<String> imagePaths) {
+        Result result = new Result();
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            pool.invoke(new GenerateTask(imagePaths, 0, imagePaths.size(), result));
+        } finally {
+            pool.shutdown();
+        }
+        return result;
+    }
+
+    /**
+     * Ruta de la variante más pequeña cuyo lado mayor cubre targetSize
+     * Si no hay variantes generadas (o el original es más pequeño) devuelve la ruta original
+     */
+    public static String resolve(String imagePath, double targetSize) {
+        if (imagePath == null || imagePath.isEmpty()) {
+            return imagePath;
+        }
+        try {
+            Path original = Paths.get(imagePath);
+            if (!Files.exists(original)) {
+                return imagePath;
+            }
+            String hash = contentHash(original);
+            for (int size : SIZES) {
+                if (size >= targetSize) {
+                    Path variant = variantPath(original, hash, size);
+                    if (Files.exists(variant)) {
+                        return variant.toString();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error resolviendo miniatura de " + imagePath + ": " + e.getMessage());
+        }
+        return imagePath;
+    }
+
+    /**
+     * Genera las variantes de una imagen; devuelve cuántas se escribieron
+     */
+    private static int generateVariants(Path original) throws IOException {
+        String hash = contentHash(original);
+        List<Integer> missing = new ArrayList<>();
+        for (int size : SIZES) {
+            if (!Files.exists(variantPath(original, hash, size))) {
+                missing.add(size);
+            }
+        }
+        if (missing.isEmpty()) {
+            return 0;
+        }
+
+        BufferedImage source = ImageIO.read(original.toFile());
+        if (source == null) {
+            throw new IOException("Formato de imagen no soportado");
+        }
+        int longest = Math.max(source.getWidth(), source.getHeight());
+        Files.createDirectories(original.toAbsolutePath().getParent().resolve(THUMBS_DIR));
+
+        int written = 0;
+        for (int size : missing) {
+            if (size >= longest) {
+                continue; // No se amplían imágenes pequeñas: se usa el original
+            }
+            BufferedImage scaled = downscale(source, size);
+            Path target = variantPath(original, hash, size);
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            ImageIO.write(scaled, "png", temp.toFile());
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            written++;
+        }
+        return written;
+    }
+
+    /**
+     * Reduce la imagen para que su lado mayor mida maxSize, a mitades sucesivas
+     * para conservar calidad con interpolación bilineal
+     */
+    private static BufferedImage downscale(BufferedImage source, int maxSize) {
+        double scale = (double) maxSize / Math.max(source.getWidth(), source.getHeight());
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage step = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = step.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, width, height, null);
+            g.dispose();
+            current = step;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private static Path variantPath(Path original, String hash, int size) {
+        String fileName = original.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        String baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        return original.toAbsolutePath().getParent().resolve(THUMBS_DIR)
+                .resolve(baseName + "-" + hash + "-" + size + ".png");
+    }
+
+    /**
+     * Hash SHA-256 (abreviado) del contenido; se recalcula solo si cambian fecha o tamaño del archivo
+     */
+    private static String contentHash(Path file) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        long modified = Files.getLastModifiedTime(key).toMillis();
+        long size = Files.size(key);
+        ContentHash cached = hashes.get(key);
+        if (cached != null && cached.modified() == modified && cached.size() == size) {
+            return cached.hash();
+        }
+
+        try (InputStream in = Files.newInputStream(key)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest()).substring(0, HASH_LENGTH);
+            hashes.put(key, new ContentHash(modified, size, hash));
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Divide la lista de imágenes a la mitad hasta llegar a una por tarea
+     */
+    private static class GenerateTask extends RecursiveAction {
+        private final List<String> paths;
+        private final int from;
+        private final int to;
+        private final Result result;
+
+        GenerateTask(List<String> paths, int from, int to, Result result) {
+            this.paths = paths;
+            this.from = from;
+            this.to = to;
+            this.result = result;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new GenerateTask(paths, from, middle, result),
+                        new GenerateTask(paths, middle, to, result));
+                return;
+            }
+            if (from == to) {
+                return;
+            }
+            String path = paths.get(from);
+            try {
+                Path original = Paths.get(path);
+                if (!Files.exists(original)) {
+                    result.missing.incrementAndGet();
+                    return;
+                }
+                result.generated.addAndGet(generateVariants(original));
+                result.images.incrementAndGet();
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error generando miniaturas de " + path + ": " + e.getMessage());
+                result.failed.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Resumen de una ejecución
+     */
+    public static class Result {
+        private final AtomicInteger images = new AtomicInteger();
+        private final AtomicInteger generated = new AtomicInteger();
+        private final AtomicInteger missing = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+
+        public int getImages() {
+            return images.get();
+        }
+
+        public int getGenerated() {
+            return generated.get();
+        }
+
+        public int getMissing() {
+            return missing.get();
+        }
+
+        public int getFailed() {
+            return failed.get();
+        }
+
+        @Override
+        public String toString() {
+            return getImages() + " imágenes procesadas, " + getGenerated() + " miniaturas nuevas, "
+                    + getMissing() + " no encontradas, " + getFailed() + " con error";
+        }
+    }
+
+    private record ContentHash(long modified, long size, String hash) {
+    }
+
+    /**
+     * Uso: ThumbnailGenerator [imagen...]
+     * Sin argumentos procesa las imágenes de los productos, o la carpeta images/ si aún no hay productos
+     */
+    public static void main(String[] args) throws IOException {
+        long start = System.nanoTime();
+        Result result;
+        if (args.length > 0) {
+            result = generate(List.of(args));
+        } else if (ProductRepository.getInstance().count() > 0) {
+            result = generateForProducts();
+        } else {
+            List<String> paths = new ArrayList<>();
+            try (var files = Files.list(Paths.get("images"))) {
+                files.filter(Files::isRegularFile).forEach(file -> paths.add(file.toString()));
+            }
+            result = generate(paths);
+        }
+        System.out.println(result + " (" + (System.nanoTime() - start) / 1_000_000 + " ms)");
+    }
+}
@@ -0,0 +1,59 @@
+package com.mycompany.shoesunicor.util;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.mycompany.shoesunicor.model.User;
+import com.mycompany.shoesunicor.model.UserRole;
+
+import java.io.IOException;
+
+import static com.mycompany.shoesunicor.util.JsonStreams.nextEnum;
+import static com.mycompany.shoesunicor.util.JsonStreams.nextNullableString;
+import static com.mycompany.shoesunicor.util.JsonStreams.nextStringList;
+import static com.mycompany.shoesunicor.util.JsonStreams.writeString;
+import static com.mycompany.shoesunicor.util.JsonStreams.writeStringList;
+
+/**
+ * Adaptador Gson de User escrito a mano (sin reflexión)
+ * @author Victor Negrete
+ */
+public class UserAdapter extends TypeAdapter<User> {
+
+    @Override
+    public void write(JsonWriter out, User user) throws IOException {
+        out.beginObject();
+        writeString(out, "id", user.getId());
+        writeString(out, "username", user.getUsername());
+        writeString(out, "password", user.getPassword());
+        writeString(out, "email", user.getEmail());
+        writeString(out, "fullName", user.getFullName());
+        if (user.getRole() != null) {
+            out.name("role").value(user.getRole().name());
+        }
+        writeStringList(out, "wishlistProductIds", user.getWishlistProductIds());
+        writeStringList(out, "orderIds", user.getOrderIds());
+        out.endObject();
+    }
+
+    @Override
+    public User read(JsonReader in) throws IOException {
+        User user = new User();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id" -> user.setId(nextNullableString(in));
+                case "username" -> user.setUsername(nextNullableString(in));
+                case "password" -> user.setPassword(nextNullableString(in));
+                case "email" -> user.setEmail(nextNullableString(in));
+                case "fullName" -> user.setFullName(nextNullableString(in));
+                case "role" -> user.setRole(nextEnum(in, UserRole.class));
+                case "wishlistProductIds" -> user.setWishlistProductIds(nextStringList(in));
+                case "orderIds" -> user.setOrderIds(nextStringList(in));
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return user;
+    }
+}
@@ -6,6 +6,11 @@ import com.mycompany.shoesunicor.controller.UserController;
 import com.mycompany.shoesunicor.model.*;
 import com.mycompany.shoesunicor.util.AnimationUtil;
 import com.mycompany.shoesunicor.util.CurrencyFormatter;
+import com.mycompany.shoesunicor.util.DataLoadService;
+import com.mycompany.shoesunicor.util.ImageCache;
+import com.mycompany.shoesunicor.util.SearchPipeline;
+import com.mycompany.shoesunicor.util.ThumbnailGenerator;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.transformation.FilteredList;
@@ -13,15 +18,19 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
 import javafx.scene.text.Text;
 import javafx.stage.FileChooser;
+import javafx.util.Duration;
 
 import java.io.File;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Vista de administrador mejorada con gestión completa de productos
@@ -38,18 +47,27 @@ public class AdminView extends VBox {
     private TableView<User> usersTable;
     private TextField searchProductField;
     private FilteredList<Product> filteredProducts;
+    private SearchPipeline<Set<String>> productSearch;
+    private Set<String> searchMatches = null;
+    private String statusFilterValue = "Todos";
     
     // Estadísticas
     private Label totalProductsLabel;
     private Label activeProductsLabel;
     private Label lowStockLabel;
     
+    private DataLoadService<AdminData> adminLoader;
+    
     public AdminView() {
         this.productController = new ProductController();
         this.orderController = new OrderController();
         this.userController = new UserController();
+        this.adminLoader = new DataLoadService<>(this, this::showData, error -> showLoadError());
+        this.productSearch = new SearchPipeline<>(this, Duration.millis(200), 20,
+                this::searchProductIds, this::showSearchResults, error -> showSearchError());
         
         setupUI();
+        refresh();
         AnimationUtil.fadeIn(this);
     }
     
@@ -77,7 +95,28 @@ public class AdminView extends VBox {
             AnimationUtil.bounce(refreshBtn);
         });
         
-        header.getChildren().addAll(title, spacer, refreshBtn);
+        // Botón de miniaturas: genera en segundo plano las variantes reducidas de las imágenes
+        Button thumbnailsBtn = new Button("Generar Miniaturas");
+        thumbnailsBtn.getStyleClass().add("btn-secondary");
+        thumbnailsBtn.setTooltip(new Tooltip("Pregenerar imágenes reducidas para cargar más rápido el catálogo"));
+        // No usa DataLoadService: la generación no se cancela al salir del panel y el botón siempre se reactiva
+        thumbnailsBtn.setOnAction(e -> {
+            thumbnailsBtn.setDisable(true);
+            CompletableFuture.supplyAsync(ThumbnailGenerator::generateForProducts)
+                    .whenComplete((result, error) -> Platform.runLater(() -> {
+                        thumbnailsBtn.setDisable(false);
+                        if (error != null) {
+                            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                            showError("Error", "No se pudieron generar las miniaturas: " + cause.getMessage());
+                            return;
+                        }
+                        ImageCache.clear();
+                        productsTable.refresh();
+                        showSuccess("Miniaturas generadas", result.toString());
+                    }));
+        });
+        
+        header.getChildren().addAll(title, spacer, thumbnailsBtn, refreshBtn);
         
         // Tabs
         tabPane = new TabPane();
@@ -121,7 +160,7 @@ public class AdminView extends VBox {
         searchProductField.getStyleClass().add("text-field");
         searchProductField.setPrefWidth(280);
         searchProductField.setTooltip(new Tooltip("Escribe para buscar productos"));
-        searchProductField.textProperty().addListener((obs, old, newVal) -> filterProducts(newVal));
+        searchProductField.textProperty().addListener((obs, old, newVal) -> productSearch.submit(newVal));
         
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
@@ -181,16 +220,11 @@ public class AdminView extends VBox {
                     setGraphic(null);
                 } else {
                     Product product = getTableView().getItems().get(getIndex());
-                    try {
-                        File imageFile = new File(product.getImagePath());
-                        if (imageFile.exists()) {
-                            Image image = new Image(imageFile.toURI().toString(), 40, 40, true, true);
-                            imageView.setImage(image);
-                            setGraphic(imageView);
-                        } else {
-                            setGraphic(new Label("📷"));
-                        }
-                    } catch (Exception e) {
+                    String imagePath = product.getImagePath();
+                    if (imagePath != null && !imagePath.isEmpty()) {
+                        ImageCache.load(imageView, imagePath, 40, 40);
+                        setGraphic(imageView);
+                    } else {
                         setGraphic(new Label("📷"));
                     }
                 }
@@ -357,9 +391,6 @@ public class AdminView extends VBox {
         
         container.getChildren().addAll(statsPanel, toolbar, productsTable);
         
-        // Cargar productos
-        loadProducts();
-        
         return container;
     }
     
@@ -404,9 +435,7 @@ public class AdminView extends VBox {
         return wrapper;
     }
     
-    private void updateStats() {
-        List<Product> allProducts = productController.getAllProductsAdmin();
-        
+    private void updateStats(List<Product> allProducts) {
         int total = allProducts.size();
         int active = (int) allProducts.stream().filter(Product::isActive).count();
         int lowStock = (int) allProducts.stream().filter(p -> p.getStock() > 0 && p.getStock() <= 5).count();
@@ -416,31 +445,57 @@ public class AdminView extends VBox {
         lowStockLabel.setText(String.valueOf(lowStock));
     }
     
-    private void filterProducts(String searchTerm) {
-        if (filteredProducts != null) {
-            filteredProducts.setPredicate(product -> {
-                if (searchTerm == null || searchTerm.isEmpty()) {
-                    return true;
-                }
-                String lowerSearch = searchTerm.toLowerCase();
-                return product.getName().toLowerCase().contains(lowerSearch) ||
-                       product.getId().toLowerCase().contains(lowerSearch) ||
-                       product.getCategory().toLowerCase().contains(lowerSearch) ||
-                       product.getBrand().toLowerCase().contains(lowerSearch);
-            });
+    /**
+     * Búsqueda en segundo plano para el panel: IDs de los productos cuyo nombre, marca,
+     * categoría, descripción o ID coinciden; null si no hay texto (todos coinciden)
+     */
+    private Set<String> searchProductIds(String searchTerm) {
+        if (searchTerm.isEmpty()) {
+            return null;
         }
+        Set<String> ids = new HashSet<>();
+        for (Product product : productController.searchCatalog(searchTerm)) {
+            ids.add(product.getId());
+        }
+        for (Product product : productController.getAllProductsAdmin()) {
+            if (product.getId().toLowerCase().contains(searchTerm)) {
+                ids.add(product.getId());
+            }
+        }
+        return ids;
+    }
+    
+    private void showSearchResults(Set<String> matchingIds) {
+        searchMatches = matchingIds;
+        productsTable.setPlaceholder(new Label("No hay datos"));
+        updateProductsPredicate();
+    }
+    
+    /**
+     * Una búsqueda fallida no muestra resultados parciales: la tabla queda vacía con el error
+     */
+    private void showSearchError() {
+        searchMatches = Set.of();
+        updateProductsPredicate();
+        productsTable.setPlaceholder(DataLoadService.createErrorPlaceholder("No se pudo completar la búsqueda",
+                () -> productSearch.submitNow(searchProductField.getText())));
     }
     
     private void applyStatusFilter(String filter) {
+        statusFilterValue = filter;
+        updateProductsPredicate();
+    }
+    
+    /**
+     * Combina la búsqueda y el filtro de estado en el predicado de la tabla
+     */
+    private void updateProductsPredicate() {
         if (filteredProducts == null) return;
         
+        Set<String> matches = searchMatches;
+        String filter = statusFilterValue;
         filteredProducts.setPredicate(product -> {
-            String searchText = searchProductField.getText();
-            boolean matchesSearch = searchText == null || searchText.isEmpty() ||
-                    product.getName().toLowerCase().contains(searchText.toLowerCase()) ||
-                    product.getId().toLowerCase().contains(searchText.toLowerCase());
-            
-            if (!matchesSearch) return false;
+            if (matches != null && !matches.contains(product.getId())) return false;
             
             return switch (filter) {
                 case "Activos" -> product.isActive();
@@ -637,30 +692,51 @@ public class AdminView extends VBox {
         return container;
     }
     
+    /**
+     * Recarga productos, órdenes y usuarios en segundo plano
+     */
     public void refresh() {
-        loadProducts();
-        loadOrders();
-        loadUsers();
-        updateStats();
+        showLoading(productsTable);
+        showLoading(ordersTable);
+        showLoading(usersTable);
+        adminLoader.load(() -> new AdminData(
+                productController.getAllProductsAdmin(),
+                orderController.getAllOrders(),
+                userController.getAllUsers()));
     }
     
-    private void loadProducts() {
-        List<Product> products = productController.getAllProductsAdmin();
+    private void showData(AdminData data) {
+        showProducts(data.products());
+        ordersTable.setItems(FXCollections.observableArrayList(data.orders()));
+        usersTable.setItems(FXCollections.observableArrayList(data.users()));
+        for (TableView<?> table : List.of(productsTable, ordersTable, usersTable)) {
+            table.setPlaceholder(new Label("No hay datos"));
+        }
+    }
+    
+    private void showLoadError() {
+        for (TableView<?> table : List.of(productsTable, ordersTable, usersTable)) {
+            table.setPlaceholder(DataLoadService.createErrorPlaceholder("No se pudieron cargar los datos", this::refresh));
+        }
+    }
+    
+    private void showProducts(List<Product> products) {
         filteredProducts = new FilteredList<>(FXCollections.observableArrayList(products), p -> true);
         productsTable.setItems(null); // Limpiar primero para forzar actualización
         productsTable.setItems(filteredProducts);
         productsTable.refresh(); // Forzar refresh de todas las celdas
-        updateStats();
-    }
-    
-    private void loadOrders() {
-        List<Order> orders = orderController.getAllOrders();
-        ordersTable.setItems(FXCollections.observableArrayList(orders));
+        updateStats(products);
+        
+        // Mantener la búsqueda y el filtro actuales sobre los datos nuevos
+        updateProductsPredicate();
+        productSearch.invalidate();
+        productSearch.submitNow(searchProductField.getText());
     }
     
-    private void loadUsers() {
-        List<User> users = userController.getAllUsers();
-        usersTable.setItems(FXCollections.observableArrayList(users));
+    private void showLoading(TableView<?> table) {
+        if (table.getItems() == null || table.getItems().isEmpty()) {
+            table.setPlaceholder(DataLoadService.createPlaceholder("Cargando..."));
+        }
     }
     
     private void showAddProductDialog() {
@@ -709,10 +785,12 @@ public class AdminView extends VBox {
         dialog.getDialogPane().setContent(grid);
         dialog.getDialogPane().setPrefWidth(500);
         
+        // El formulario se lee sobre una copia; los cambios se aplican luego sobre el producto vigente
+        int shownStock = product.getStock();
         dialog.setResultConverter(dialogButton -> {
             if (dialogButton == saveButtonType) {
                 try {
-                    return getProductFromForm(grid, product);
+                    return getProductFromForm(grid, null);
                 } catch (Exception e) {
                     showError("Error de validación", "Por favor verifica los datos ingresados.\n" + e.getMessage());
                     return null;
@@ -721,11 +799,27 @@ public class AdminView extends VBox {
             return null;
         });
         
-        dialog.showAndWait().ifPresent(updatedProduct -> {
-            if (updatedProduct != null) {
-                productController.updateProduct(updatedProduct);
+        dialog.showAndWait().ifPresent(edited -> {
+            if (edited != null) {
+                boolean updated = productController.updateProduct(product.getId(), current -> {
+                    current.setName(edited.getName());
+                    current.setPrice(edited.getPrice());
+                    current.setCategory(edited.getCategory());
+                    current.setBrand(edited.getBrand());
+                    current.setDescription(edited.getDescription());
+                    current.setImagePath(edited.getImagePath());
+                    current.setActive(edited.isActive());
+                    // Si no se tocó el stock se conserva el vigente (pudo cambiar por ventas mientras tanto)
+                    if (edited.getStock() != shownStock) {
+                        current.setStock(edited.getStock());
+                    }
+                });
                 refresh();
-                showSuccess("¡Producto actualizado!", "Los cambios se han guardado correctamente.");
+                if (updated) {
+                    showSuccess("¡Producto actualizado!", "Los cambios se han guardado correctamente.");
+                } else {
+                    showError("Error", "No se pudo actualizar el producto.");
+                }
             }
         });
     }
@@ -746,12 +840,13 @@ public class AdminView extends VBox {
                 }
                 
                 boolean wasActive = product.isActive();
-                product.setStock(newStock);
-                productController.updateProduct(product);
+                boolean updated = productController.updateStock(product.getId(), newStock);
                 refresh();
                 
                 // Mensaje especial si se desactivó automáticamente
-                if (newStock == 0 && wasActive) {
+                if (!updated) {
+                    showError("Error", "No se pudo actualizar el stock.");
+                } else if (newStock == 0 && wasActive) {
                     showSuccess("Stock actualizado", 
                         "El producto \"" + product.getName() + "\" ahora tiene stock 0.\n" +
                         "⚠️ Se ha DESACTIVADO automáticamente y aparecerá como 'Sin Stock' en el catálogo.");
@@ -778,11 +873,14 @@ public class AdminView extends VBox {
                     showError("Error", "El precio no puede ser negativo.");
                     return;
                 }
-                product.setPrice(newPrice);
-                productController.updateProduct(product);
+                boolean updated = productController.updateProduct(product.getId(), current -> current.setPrice(newPrice));
                 refresh();
-                showSuccess("¡Precio actualizado!", 
-                    product.getName() + ": " + CurrencyFormatter.formatPrice(newPrice));
+                if (updated) {
+                    showSuccess("¡Precio actualizado!", 
+                        product.getName() + ": " + CurrencyFormatter.formatPrice(newPrice));
+                } else {
+                    showError("Error", "No se pudo actualizar el precio.");
+                }
             } catch (NumberFormatException e) {
                 showError("Error", "Por favor ingresa un precio válido.");
             }
@@ -987,4 +1085,10 @@ public class AdminView extends VBox {
         alert.setContentText(message);
         alert.showAndWait();
     }
+    
+    /**
+     * Datos del panel cargados en segundo plano
+     */
+    private record AdminData(List<Product> products, List<Order> orders, List<User> users) {
+    }
 }
@@ -2,16 +2,16 @@ package com.mycompany.shoesunicor.view;
 
 import com.mycompany.shoesunicor.controller.OrderController;
 import com.mycompany.shoesunicor.model.CartItem;
+import com.mycompany.shoesunicor.util.ImageCache;
 import com.mycompany.shoesunicor.util.Session;
+import javafx.beans.binding.Bindings;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
 import javafx.scene.text.Text;
 
-import java.io.File;
 
 /**
  * Vista del carrito de compra
@@ -55,8 +55,10 @@ public class CartView extends VBox {
         footer.setPadding(new Insets(20));
         footer.setStyle("-fx-background-color: white; -fx-background-radius: 10;");
         
-        totalLabel = new Label("Total: $0.00");
+        totalLabel = new Label();
         totalLabel.getStyleClass().add("label-price");
+        // El total se mantiene en la sesión; la etiqueta solo lo sigue
+        totalLabel.textProperty().bind(Bindings.format("Total: $%.2f", session.cartTotalProperty()));
         
         Button checkoutBtn = new Button("Finalizar Compra");
         checkoutBtn.getStyleClass().add("btn-primary");
@@ -75,7 +77,6 @@ public class CartView extends VBox {
     
     public void refresh() {
         displayCartItems();
-        updateTotal();
     }
     
     private void displayCartItems() {
@@ -105,14 +106,7 @@ public class CartView extends VBox {
         imageView.setFitHeight(100);
         imageView.setPreserveRatio(true);
         
-        try {
-            File imageFile = new File(item.getImagePath());
-            if (imageFile.exists()) {
-                imageView.setImage(new Image(imageFile.toURI().toString()));
-            }
-        } catch (Exception e) {
-            // Imagen por defecto
-        }
+        ImageCache.load(imageView, item.getImagePath(), 100, 100);
         
         // Info del producto
         VBox infoBox = new VBox(8);
@@ -131,25 +125,25 @@ public class CartView extends VBox {
         HBox quantityBox = new HBox(10);
         quantityBox.setAlignment(Pos.CENTER);
         
-        Button decreaseBtn = new Button("-");
-        decreaseBtn.getStyleClass().add("btn-secondary");
-        decreaseBtn.setOnAction(e -> updateQuantity(item, -1));
-        
         Label quantityLabel = new Label(String.valueOf(item.getQuantity()));
         quantityLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-min-width: 30; -fx-alignment: center;");
         
-        Button increaseBtn = new Button("+");
-        increaseBtn.getStyleClass().add("btn-secondary");
-        increaseBtn.setOnAction(e -> updateQuantity(item, 1));
-        
-        quantityBox.getChildren().addAll(decreaseBtn, quantityLabel, increaseBtn);
-        
         // Subtotal
         Label subtotalLabel = new Label(String.format("$%.2f", item.getSubtotal()));
         subtotalLabel.getStyleClass().add("label-price");
         subtotalLabel.setMinWidth(100);
         subtotalLabel.setAlignment(Pos.CENTER_RIGHT);
         
+        Button decreaseBtn = new Button("-");
+        decreaseBtn.getStyleClass().add("btn-secondary");
+        decreaseBtn.setOnAction(e -> updateQuantity(item, -1, quantityLabel, subtotalLabel));
+        
+        Button increaseBtn = new Button("+");
+        increaseBtn.getStyleClass().add("btn-secondary");
+        increaseBtn.setOnAction(e -> updateQuantity(item, 1, quantityLabel, subtotalLabel));
+        
+        quantityBox.getChildren().addAll(decreaseBtn, quantityLabel, increaseBtn);
+        
         // Botón eliminar
         Button removeBtn = new Button("🗑️");
         removeBtn.getStyleClass().add("btn-danger");
@@ -160,11 +154,15 @@ public class CartView extends VBox {
         return card;
     }
     
-    private void updateQuantity(CartItem item, int change) {
+    /**
+     * Cambia la cantidad a través de la sesión y actualiza solo la tarjeta del ítem
+     */
+    private void updateQuantity(CartItem item, int change, Label quantityLabel, Label subtotalLabel) {
         int newQuantity = item.getQuantity() + change;
         if (newQuantity > 0) {
-            item.setQuantity(newQuantity);
-            refresh();
+            session.updateCartQuantity(item.getProductId(), newQuantity);
+            quantityLabel.setText(String.valueOf(item.getQuantity()));
+            subtotalLabel.setText(String.format("$%.2f", item.getSubtotal()));
         } else {
             removeItem(item);
         }
@@ -187,11 +185,6 @@ public class CartView extends VBox {
         }
     }
     
-    private void updateTotal() {
-        double total = session.getCartTotal();
-        totalLabel.setText(String.format("Total: $%.2f", total));
-    }
-    
     private void checkout() {
         if (session.getCart().isEmpty()) {
             showAlert(Alert.AlertType.WARNING, "Carrito vacío", 
@@ -2,12 +2,16 @@ package com.mycompany.shoesunicor.view;
 
 import com.mycompany.shoesunicor.controller.AuthController;
 import com.mycompany.shoesunicor.util.AnimationUtil;
+import com.mycompany.shoesunicor.util.LoginRateLimiter;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.scene.text.Text;
 
+import java.util.concurrent.CompletionException;
+
 /**
  * Vista de Login - Versión mejorada
  * @author Victor Negrete
@@ -16,6 +20,7 @@ public class LoginView extends VBox {
     private TextField usernameField;
     private PasswordField passwordField;
     private Label errorLabel;
+    private Button loginButton;
     private AuthController authController;
     private Runnable onLoginSuccess;
     private Runnable onRegisterClick;
@@ -74,7 +79,7 @@ public class LoginView extends VBox {
         errorLabel.setVisible(false);
 
         // Botón de login
-        Button loginButton = new Button("Iniciar Sesión");
+        loginButton = new Button("Iniciar Sesión");
         loginButton.getStyleClass().add("btn-primary");
         loginButton.setMaxWidth(Double.MAX_VALUE);
         loginButton.setOnAction(e -> handleLogin());
@@ -115,22 +120,43 @@ public class LoginView extends VBox {
             return;
         }
 
-        // Intentar login
-        if (authController.login(username, password)) {
-            errorLabel.setVisible(false);
-            AnimationUtil.fadeOut(this, javafx.util.Duration.millis(300));
-            javafx.application.Platform.runLater(() -> {
-                try {
-                    Thread.sleep(300);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-                onLoginSuccess.run();
-            });
-        } else {
-            showError("\u274C Usuario o contraseña incorrectos");  // X mark
-            AnimationUtil.shake(errorLabel);
-        }
+        // Intentar login fuera del hilo de JavaFX: verificar la contraseña toma decenas de ms
+        setLoginInProgress(true);
+        authController.authenticateAsync(username, password).whenComplete((user, error) -> Platform.runLater(() -> {
+            setLoginInProgress(false);
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof LoginRateLimiter.ThrottledException throttled) {
+                long seconds = Math.max(1, (throttled.getRetryAfterMillis() + 999) / 1000);
+                showError("\u23F3 Demasiados intentos, espera " + seconds + " s");  // Hourglass
+            } else if (error != null) {
+                System.err.println("Error verificando credenciales: " + error.getMessage());
+                showError("\u26A0 No se pudo iniciar sesión, intenta de nuevo");  // Warning
+            } else if (user != null) {
+                authController.startSession(user);
+                errorLabel.setVisible(false);
+                AnimationUtil.fadeOut(this, javafx.util.Duration.millis(300));
+                Platform.runLater(() -> {
+                    try {
+                        Thread.sleep(300);
+                    } catch (InterruptedException e) {
+                        e.printStackTrace();
+                    }
+                    onLoginSuccess.run();
+                });
+            } else {
+                showError("\u274C Usuario o contraseña incorrectos");  // X mark
+                AnimationUtil.shake(errorLabel);
+            }
+        }));
+    }
+
+    /**
+     * Evita envíos repetidos mientras se verifican las credenciales
+     */
+    private void setLoginInProgress(boolean inProgress) {
+        loginButton.setDisable(inProgress);
+        passwordField.setDisable(inProgress);
+        loginButton.setText(inProgress ? "Verificando..." : "Iniciar Sesión");
     }
 
     private void showError(String message) {
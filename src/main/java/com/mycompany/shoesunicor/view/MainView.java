@@ -1,10 +1,8 @@
 package com.mycompany.shoesunicor.view;
 
 import com.mycompany.shoesunicor.controller.AuthController;
-import com.mycompany.shoesunicor.model.CartItem;
 import com.mycompany.shoesunicor.model.Product;
 import com.mycompany.shoesunicor.util.Session;
-import javafx.collections.ListChangeListener;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
@@ -79,11 +77,9 @@ public class MainView extends BorderPane {
             adminView = new AdminView();
         }
         
-        // Listener para actualizar badge del carrito
-        session.getCart().addListener((ListChangeListener.Change<? extends CartItem> c) -> {
-            updateCartBadge();
-        });
-        updateCartBadge();
+        // Badge del carrito enlazado a la cantidad de artículos de la sesión
+        cartBadge.textProperty().bind(session.cartItemCountProperty().asString());
+        cartBadge.visibleProperty().bind(session.cartItemCountProperty().greaterThan(0));
     }
     
     private HBox createNavbar() {
@@ -154,16 +150,6 @@ public class MainView extends BorderPane {
         return navbar;
     }
     
-    private void updateCartBadge() {
-        int itemCount = session.getCartItemCount();
-        if (itemCount > 0) {
-            cartBadge.setText(String.valueOf(itemCount));
-            cartBadge.setVisible(true);
-        } else {
-            cartBadge.setVisible(false);
-        }
-    }
-    
     private void clearActiveButtons() {
         productsBtn.getStyleClass().remove("navbar-button-active");
         cartBtn.getStyleClass().remove("navbar-button-active");
@@ -4,8 +4,11 @@ import com.mycompany.shoesunicor.controller.OrderController;
 import com.mycompany.shoesunicor.model.CartItem;
 import com.mycompany.shoesunicor.model.Order;
 import com.mycompany.shoesunicor.model.OrderStatus;
+import com.mycompany.shoesunicor.repository.OrderPage;
+import com.mycompany.shoesunicor.repository.OrderQuery;
 import com.mycompany.shoesunicor.util.AnimationUtil;
 import com.mycompany.shoesunicor.util.CurrencyFormatter;
+import com.mycompany.shoesunicor.util.DataLoadService;
 import com.mycompany.shoesunicor.util.Session;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -15,17 +18,19 @@ import javafx.scene.text.Text;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.time.LocalTime;
 
 /**
  * Vista de historial de pedidos con filtros y detalles
  * @author Victor Negrete
  */
 public class OrderHistoryView extends VBox {
+    private static final int PAGE_SIZE = 20;
+    
     private OrderController orderController;
     private Session session;
     private VBox ordersContainer;
+    private DataLoadService<OrderPage> ordersLoader;
     
     // Filtros
     private TextField searchField;
@@ -40,6 +45,9 @@ public class OrderHistoryView extends VBox {
     public OrderHistoryView() {
         this.orderController = new OrderController();
         this.session = Session.getInstance();
+        this.ordersLoader = new DataLoadService<>(this, this::showOrdersPage,
+                error -> ordersContainer.getChildren().setAll(DataLoadService.createErrorPlaceholder(
+                        "No se pudieron cargar los pedidos", this::applyFilters)));
         
         setupUI();
         AnimationUtil.fadeIn(this);
@@ -317,52 +325,78 @@ public class OrderHistoryView extends VBox {
     }
     
     private void applyFilters() {
-        ordersContainer.getChildren().clear();
-        
-        List<Order> orders = orderController.getUserOrders(session.getCurrentUser().getId());
-        
-        // Filtrar por búsqueda de número de pedido
-        String searchText = searchField.getText();
-        if (searchText != null && !searchText.trim().isEmpty()) {
-            orders = orders.stream()
-                .filter(o -> o.getId().toLowerCase().contains(searchText.toLowerCase()))
-                .collect(Collectors.toList());
-        }
+        ordersContainer.getChildren().setAll(DataLoadService.createPlaceholder("Cargando pedidos..."));
+        loadOrdersPage(0);
+    }
+    
+    /**
+     * Consulta en segundo plano los índices de órdenes con los filtros actuales
+     */
+    private void loadOrdersPage(int offset) {
+        OrderQuery query = new OrderQuery()
+                .forUser(session.getCurrentUser().getId())
+                .idContains(searchField.getText())
+                .page(offset, PAGE_SIZE);
         
         // Filtrar por estado
         String selectedStatus = statusFilter.getValue();
-        if (selectedStatus != null && !selectedStatus.equals("Todos los estados")) {
-            orders = orders.stream()
-                .filter(o -> o.getStatus().getDisplayName().equals(selectedStatus))
-                .collect(Collectors.toList());
+        for (OrderStatus status : OrderStatus.values()) {
+            if (status.getDisplayName().equals(selectedStatus)) {
+                query.withStatus(status);
+            }
         }
         
-        // Filtrar por fecha desde
+        // Filtrar por rango de fechas (días completos)
         LocalDate fromDate = fromDatePicker.getValue();
-        if (fromDate != null) {
-            orders = orders.stream()
-                .filter(o -> !o.getOrderDate().toLocalDate().isBefore(fromDate))
-                .collect(Collectors.toList());
+        LocalDate toDate = toDatePicker.getValue();
+        if (fromDate != null && toDate != null && fromDate.isAfter(toDate)) {
+            ordersLoader.cancel();
+            Label rangeLabel = new Label("La fecha \"Desde\" es posterior a la fecha \"Hasta\"");
+            rangeLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #7F8C8D;");
+            ordersContainer.getChildren().setAll(rangeLabel);
+            return;
         }
+        query.between(fromDate != null ? fromDate.atStartOfDay() : null,
+                toDate != null ? toDate.atTime(LocalTime.MAX) : null);
         
-        // Filtrar por fecha hasta
-        LocalDate toDate = toDatePicker.getValue();
-        if (toDate != null) {
-            orders = orders.stream()
-                .filter(o -> !o.getOrderDate().toLocalDate().isAfter(toDate))
-                .collect(Collectors.toList());
+        ordersLoader.load(() -> orderController.findOrders(query));
+    }
+    
+    /**
+     * Muestra una página de resultados; la primera reemplaza la lista, las siguientes se agregan
+     */
+    private void showOrdersPage(OrderPage page) {
+        if (page.getOffset() == 0) {
+            ordersContainer.getChildren().clear();
         }
         
-        if (orders.isEmpty()) {
+        if (page.getTotalCount() == 0) {
             Label emptyLabel = new Label("No se encontraron pedidos");
             emptyLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #7F8C8D;");
             ordersContainer.getChildren().add(emptyLabel);
             return;
         }
         
-        for (Order order : orders) {
+        for (Order order : page.getOrders()) {
             ordersContainer.getChildren().add(createOrderCard(order));
         }
+        
+        if (page.hasMore()) {
+            int nextOffset = page.getOffset() + page.getOrders().size();
+            Button moreBtn = new Button("Ver más pedidos (" + (page.getTotalCount() - nextOffset) + ")");
+            moreBtn.setMaxWidth(Double.MAX_VALUE);
+            moreBtn.setStyle(
+                "-fx-background-color: #ECF0F1; " +
+                "-fx-text-fill: #2C3E50; " +
+                "-fx-padding: 8 15; " +
+                "-fx-background-radius: 8;"
+            );
+            moreBtn.setOnAction(e -> {
+                ordersContainer.getChildren().remove(moreBtn);
+                loadOrdersPage(nextOffset);
+            });
+            ordersContainer.getChildren().add(moreBtn);
+        }
     }
     
     private void clearFilters() {
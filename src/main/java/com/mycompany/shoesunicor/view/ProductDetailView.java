@@ -6,16 +6,15 @@ import com.mycompany.shoesunicor.model.CartItem;
 import com.mycompany.shoesunicor.model.Product;
 import com.mycompany.shoesunicor.util.AnimationUtil;
 import com.mycompany.shoesunicor.util.CurrencyFormatter;
+import com.mycompany.shoesunicor.util.ImageCache;
 import com.mycompany.shoesunicor.util.Session;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
 import javafx.scene.text.Text;
 
-import java.io.File;
 
 /**
  * Vista de detalles del producto con todas las funcionalidades
@@ -372,15 +371,7 @@ public class ProductDetailView extends VBox {
     
     private void loadProductData() {
         // Cargar imagen
-        try {
-            File imageFile = new File(product.getImagePath());
-            if (imageFile.exists()) {
-                Image image = new Image(imageFile.toURI().toString());
-                mainImageView.setImage(image);
-            }
-        } catch (Exception e) {
-            System.err.println("Error cargando imagen: " + e.getMessage());
-        }
+        ImageCache.load(mainImageView, product.getImagePath(), 380, 380);
         
         // Cargar datos
         nameLabel.setText(product.getName());
@@ -4,20 +4,24 @@ import com.mycompany.shoesunicor.controller.ProductController;
 import com.mycompany.shoesunicor.controller.UserController;
 import com.mycompany.shoesunicor.model.CartItem;
 import com.mycompany.shoesunicor.model.Product;
+import com.mycompany.shoesunicor.repository.ProductRepository;
 import com.mycompany.shoesunicor.util.AnimationUtil;
 import com.mycompany.shoesunicor.util.CurrencyFormatter;
+import com.mycompany.shoesunicor.util.DataLoadService;
+import com.mycompany.shoesunicor.util.ImageCache;
+import com.mycompany.shoesunicor.util.SearchPipeline;
 import com.mycompany.shoesunicor.util.Session;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
 import javafx.scene.text.Text;
+import javafx.util.Duration;
 
-import java.io.File;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -25,17 +29,28 @@ import java.util.stream.Collectors;
  * @author Victor Negrete
  */
 public class ProductsView extends VBox {
+    private static final double CARD_WIDTH = 260;
+    private static final double CARD_GAP = 25;
+    private static final int SEARCH_DELAY_MS = 200;
+    private static final int SEARCH_CACHE_SIZE = 20;
     
     private ProductController productController;
     private UserController userController;
     private Session session;
     private TextField searchField;
-    private FlowPane productsContainer;
+    private ListView<List<Product>> productsGrid;
+    private List<Product> currentProducts = new ArrayList<>();
+    private int columns = 1;
+    private boolean entrancePending = false;
+    private final AnimationUtil.EntranceAnimator entranceAnimator = new AnimationUtil.EntranceAnimator();
+    private SearchPipeline<List<Product>> productSearch;
     
     public ProductsView() {
         this.productController = new ProductController();
         this.userController = new UserController();
         this.session = Session.getInstance();
+        this.productSearch = new SearchPipeline<>(this, Duration.millis(SEARCH_DELAY_MS), SEARCH_CACHE_SIZE,
+                this::searchProducts, this::displayProducts, error -> showLoadError());
         
         setupUI();
         loadProducts();
@@ -62,55 +77,78 @@ public class ProductsView extends VBox {
         searchField.setPromptText("Buscar productos...");
         searchField.getStyleClass().add("text-field");
         searchField.setPrefWidth(320);
-        searchField.textProperty().addListener((obs, old, newVal) -> filterProducts(newVal));
+        searchField.textProperty().addListener((obs, old, newVal) -> {
+            showLoading();
+            productSearch.submit(newVal);
+        });
         
         header.getChildren().addAll(title, spacer, searchField);
         
-        // Container de productos
-        ScrollPane scrollPane = new ScrollPane();
-        scrollPane.setFitToWidth(true);
-        scrollPane.getStyleClass().add("scroll-pane");
-        scrollPane.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
-        
-        productsContainer = new FlowPane(25, 25);
-        productsContainer.setPadding(new Insets(15));
-        productsContainer.setAlignment(Pos.CENTER);
+        // Grilla virtualizada: cada celda es una fila de tarjetas y solo existen
+        // las filas visibles; al hacer scroll las celdas se reutilizan
+        productsGrid = new ListView<>();
+        productsGrid.getStyleClass().add("product-grid");
+        productsGrid.setFocusTraversable(false);
+        productsGrid.setCellFactory(list -> new ProductRowCell());
+        productsGrid.widthProperty().addListener((obs, old, newVal) -> updateColumns(newVal.doubleValue()));
+        VBox.setVgrow(productsGrid, Priority.ALWAYS);
         
-        scrollPane.setContent(productsContainer);
-        VBox.setVgrow(scrollPane, Priority.ALWAYS);
+        // La animación de entrada solo aplica a las celdas creadas en la primera pasada
+        // de layout tras displayProducts; al terminar esa pasada se desactiva
+        Runnable endEntrance = () -> entrancePending = false;
+        productsGrid.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (oldScene != null) {
+                oldScene.removePostLayoutPulseListener(endEntrance);
+            }
+            if (newScene != null) {
+                newScene.addPostLayoutPulseListener(endEntrance);
+            }
+        });
         
-        getChildren().addAll(header, scrollPane);
+        getChildren().addAll(header, productsGrid);
     }
     
     public void refresh() {
         loadProducts();
     }
     
+    /**
+     * Recarga el catálogo respetando la búsqueda actual; descarta los resultados guardados
+     */
     private void loadProducts() {
-        // Cargar todos los productos para mostrar "Sin Stock" cuando corresponda
-        List<Product> products = productController.getAllProductsForCatalog();
-        products = products.stream()
-                .sorted(Comparator.comparing(Product::getName))
-                .collect(Collectors.toList());
-        displayProducts(products);
+        showLoading();
+        productSearch.invalidate();
+        productSearch.submitNow(searchField.getText());
     }
     
-    private void filterProducts(String searchTerm) {
-        if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            loadProducts();
-        } else {
-            String lowerSearch = searchTerm.toLowerCase();
-            List<Product> products = productController.getAllProductsForCatalog().stream()
-                    .filter(p -> p.getName().toLowerCase().contains(lowerSearch) ||
-                                p.getDescription().toLowerCase().contains(lowerSearch))
-                    .sorted(Comparator.comparing(Product::getName))
+    /**
+     * Búsqueda que corre en segundo plano: sin texto devuelve el catálogo completo por nombre
+     */
+    private List<Product> searchProducts(String searchTerm) {
+        if (searchTerm.isEmpty()) {
+            // Cargar todos los productos para mostrar "Sin Stock" cuando corresponda
+            return productController.getAllProductsForCatalog().stream()
+                    .sorted(ProductRepository.BY_NAME)
                     .collect(Collectors.toList());
-            displayProducts(products);
         }
+        return productController.searchCatalog(searchTerm);
+    }
+    
+    private void showLoading() {
+        if (productsGrid.getItems().isEmpty()) {
+            productsGrid.setPlaceholder(DataLoadService.createPlaceholder("Cargando productos..."));
+        }
+    }
+    
+    private void showLoadError() {
+        entranceAnimator.finishAll();
+        productsGrid.getItems().clear();
+        productsGrid.setPlaceholder(DataLoadService.createErrorPlaceholder(
+                "No se pudieron cargar los productos", this::loadProducts));
     }
     
     private void displayProducts(List<Product> products) {
-        productsContainer.getChildren().clear();
+        currentProducts = products;
         
         if (products.isEmpty()) {
             VBox emptyBox = new VBox(10);
@@ -121,79 +159,118 @@ public class ProductsView extends VBox {
             noProducts.setStyle("-fx-font-size: 18px; -fx-text-fill: #7F8C8D; -fx-font-weight: bold;");
             
             emptyBox.getChildren().add(noProducts);
-            productsContainer.getChildren().add(emptyBox);
-            return;
+            productsGrid.setPlaceholder(emptyBox);
         }
         
-        for (int i = 0; i < products.size(); i++) {
-            Product product = products.get(i);
-            VBox card = createProductCard(product);
-            productsContainer.getChildren().add(card);
-            
-            final int index = i;
-            javafx.application.Platform.runLater(() -> {
-                javafx.animation.PauseTransition pause = 
-                    new javafx.animation.PauseTransition(javafx.util.Duration.millis(index * 50));
-                pause.setOnFinished(e -> AnimationUtil.slideUp(card));
-                pause.play();
-            });
+        // Animar la entrada de las tarjetas que se muestren en esta pasada
+        entrancePending = true;
+        entranceAnimator.begin(products.size());
+        productsGrid.getItems().setAll(toRows(products));
+        productsGrid.scrollTo(0);
+    }
+    
+    /**
+     * Recalcula cuántas tarjetas caben por fila según el ancho disponible
+     */
+    private void updateColumns(double width) {
+        // Margen para la barra de scroll vertical
+        int newColumns = Math.max(1, (int) ((width - 40 + CARD_GAP) / (CARD_WIDTH + CARD_GAP)));
+        if (newColumns != columns) {
+            columns = newColumns;
+            productsGrid.getItems().setAll(toRows(currentProducts));
         }
     }
     
-    private VBox createProductCard(Product product) {
-        VBox card = new VBox(12);
-        card.getStyleClass().add("product-card");
-        card.setPrefWidth(260);
-        card.setMaxWidth(260);
-        card.setMinWidth(260);
-        card.setAlignment(Pos.TOP_CENTER);
-        card.setCursor(javafx.scene.Cursor.HAND);
-        
-        // Click en la tarjeta para ver detalles
-        card.setOnMouseClicked(e -> {
-            // Solo abrir detalles si no se hizo click en un botón
-            if (!(e.getTarget() instanceof javafx.scene.control.Button)) {
-                openProductDetail(product);
-            }
-        });
-        
-        // Verificar si el producto está disponible
-        boolean isAvailable = product.isActive() && product.getStock() > 0;
-        
-        // Container para la imagen
-        StackPane imageContainer = new StackPane();
-        imageContainer.setPrefSize(240, 240);
-        imageContainer.setMaxSize(240, 240);
-        imageContainer.setMinSize(240, 240);
-        imageContainer.setStyle("-fx-background-color: #F8F9FA; -fx-background-radius: 12;");
+    private List<List<Product>> toRows(List<Product> products) {
+        List<List<Product>> rows = new ArrayList<>((products.size() + columns - 1) / columns);
+        for (int i = 0; i < products.size(); i += columns) {
+            rows.add(products.subList(i, Math.min(i + columns, products.size())));
+        }
+        return rows;
+    }
+    
+    /**
+     * Celda de la grilla: una fila de tarjetas que se reasignan a otros productos al reutilizarse
+     */
+    private class ProductRowCell extends ListCell<List<Product>> {
+        private final HBox row = new HBox(CARD_GAP);
+        private final List<ProductCard> cards = new ArrayList<>();
         
-        // Imagen del producto
-        ImageView imageView = new ImageView();
-        imageView.setFitWidth(220);
-        imageView.setFitHeight(220);
-        imageView.setPreserveRatio(true);
-        imageView.setSmooth(true);
+        ProductRowCell() {
+            row.setAlignment(Pos.CENTER);
+            setGraphic(row);
+        }
         
-        try {
-            File imageFile = new File(product.getImagePath());
-            if (imageFile.exists()) {
-                Image image = new Image(imageFile.toURI().toString());
-                imageView.setImage(image);
+        @Override
+        protected void updateItem(List<Product> products, boolean empty) {
+            super.updateItem(products, empty);
+            if (empty || products == null) {
+                row.getChildren().clear();
+                setGraphic(null);
+                return;
+            }
+            
+            while (cards.size() < products.size()) {
+                cards.add(new ProductCard());
+            }
+            row.getChildren().setAll(cards.subList(0, products.size()));
+            for (int i = 0; i < products.size(); i++) {
+                ProductCard card = cards.get(i);
+                card.setProduct(products.get(i));
+                if (entrancePending) {
+                    entranceAnimator.add(card);
+                }
             }
-        } catch (Exception e) {
-            // Sin imagen
+            setGraphic(row);
         }
+    }
+    
+    /**
+     * Tarjeta de producto reutilizable: los nodos se crean una sola vez y
+     * setProduct() actualiza su contenido para otro producto
+     */
+    private class ProductCard extends VBox {
+        private final ImageView imageView = new ImageView();
+        private final Label outOfStockBadge = new Label("SIN STOCK");
+        private final Label nameLabel = new Label();
+        private final Label priceLabel = new Label();
+        private final Label stockLabel = new Label();
+        private final Button addToCartBtn = new Button();
+        private final Button wishlistBtn = new Button();
+        private Product product;
+        private String imagePath;
         
-        imageContainer.getChildren().add(imageView);
-        StackPane.setAlignment(imageView, Pos.CENTER);
-        
-        // Overlay de "Sin Stock" si no está disponible
-        if (!isAvailable) {
-            // Oscurecer la imagen
-            imageView.setOpacity(0.5);
+        ProductCard() {
+            super(12);
+            getStyleClass().add("product-card");
+            setPrefWidth(CARD_WIDTH);
+            setMaxWidth(CARD_WIDTH);
+            setMinWidth(CARD_WIDTH);
+            setAlignment(Pos.TOP_CENTER);
+            setCursor(javafx.scene.Cursor.HAND);
+            
+            // Click en la tarjeta para ver detalles
+            setOnMouseClicked(e -> {
+                // Solo abrir detalles si no se hizo click en un botón
+                if (!(e.getTarget() instanceof javafx.scene.control.Button)) {
+                    openProductDetail(product);
+                }
+            });
+            
+            // Container para la imagen
+            StackPane imageContainer = new StackPane();
+            imageContainer.setPrefSize(240, 240);
+            imageContainer.setMaxSize(240, 240);
+            imageContainer.setMinSize(240, 240);
+            imageContainer.setStyle("-fx-background-color: #F8F9FA; -fx-background-radius: 12;");
+            
+            // Imagen del producto
+            imageView.setFitWidth(220);
+            imageView.setFitHeight(220);
+            imageView.setPreserveRatio(true);
+            imageView.setSmooth(true);
             
             // Badge de Sin Stock sobre la imagen
-            Label outOfStockBadge = new Label("SIN STOCK");
             outOfStockBadge.setStyle(
                 "-fx-background-color: #E74C3C; " +
                 "-fx-text-fill: white; " +
@@ -202,93 +279,118 @@ public class ProductsView extends VBox {
                 "-fx-padding: 8 20; " +
                 "-fx-background-radius: 20;"
             );
-            imageContainer.getChildren().add(outOfStockBadge);
+            
+            imageContainer.getChildren().addAll(imageView, outOfStockBadge);
+            StackPane.setAlignment(imageView, Pos.CENTER);
             StackPane.setAlignment(outOfStockBadge, Pos.CENTER);
-        }
-        
-        // Nombre del producto
-        Label nameLabel = new Label(product.getName());
-        nameLabel.getStyleClass().add("label-product-name");
-        nameLabel.setWrapText(true);
-        nameLabel.setMaxWidth(240);
-        nameLabel.setAlignment(Pos.CENTER);
-        
-        // Precio
-        Label priceLabel = new Label(CurrencyFormatter.formatPrice(product.getPrice()));
-        priceLabel.getStyleClass().add("label-price");
-        if (!isAvailable) {
-            priceLabel.setStyle("-fx-font-size: 22px; -fx-font-weight: bold; -fx-text-fill: #95A5A6;");
-        }
-        
-        // Stock
-        Label stockLabel;
-        if (!isAvailable) {
-            stockLabel = new Label("❌ Agotado - Sin Stock");
-            stockLabel.setStyle("-fx-font-size: 13px; -fx-text-fill: #E74C3C; -fx-font-weight: bold;");
-        } else if (product.getStock() <= 5) {
-            stockLabel = new Label("⚠️ ¡Solo " + product.getStock() + " disponibles!");
-            stockLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #E67E22; -fx-font-weight: bold;");
-        } else {
-            stockLabel = new Label("✓ " + product.getStock() + " disponibles");
-            stockLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #27AE60; -fx-font-weight: bold;");
-        }
-        
-        // Botón ver detalles
-        Button viewDetailsBtn = new Button("👁️ Ver Detalles");
-        viewDetailsBtn.setStyle(
-            "-fx-background-color: #3498DB; " +
-            "-fx-text-fill: white; " +
-            "-fx-font-size: 12px; " +
-            "-fx-padding: 8 20; " +
-            "-fx-background-radius: 8; " +
-            "-fx-cursor: hand;"
-        );
-        viewDetailsBtn.setOnAction(e -> openProductDetail(product));
-        
-        // Botones de acción
-        HBox buttonsBox = new HBox(10);
-        buttonsBox.setAlignment(Pos.CENTER);
-        
-        Button addToCartBtn = new Button(isAvailable ? "🛒 Agregar" : "No Disponible");
-        if (isAvailable) {
-            addToCartBtn.getStyleClass().add("btn-primary");
-            addToCartBtn.setStyle("-fx-font-size: 12px; -fx-padding: 10 15;");
+            
+            // Nombre del producto
+            nameLabel.getStyleClass().add("label-product-name");
+            nameLabel.setWrapText(true);
+            nameLabel.setMaxWidth(240);
+            nameLabel.setAlignment(Pos.CENTER);
+            
+            // Precio
+            priceLabel.getStyleClass().add("label-price");
+            
+            // Botón ver detalles
+            Button viewDetailsBtn = new Button("👁️ Ver Detalles");
+            viewDetailsBtn.setStyle(
+                "-fx-background-color: #3498DB; " +
+                "-fx-text-fill: white; " +
+                "-fx-font-size: 12px; " +
+                "-fx-padding: 8 20; " +
+                "-fx-background-radius: 8; " +
+                "-fx-cursor: hand;"
+            );
+            viewDetailsBtn.setOnAction(e -> openProductDetail(product));
+            
+            // Botones de acción
+            HBox buttonsBox = new HBox(10);
+            buttonsBox.setAlignment(Pos.CENTER);
+            
             addToCartBtn.setOnAction(e -> {
                 addToCart(product);
                 AnimationUtil.bounce(addToCartBtn);
             });
-        } else {
-            addToCartBtn.setStyle(
-                "-fx-background-color: #BDC3C7; " +
-                "-fx-text-fill: #7F8C8D; " +
-                "-fx-font-size: 12px; " +
-                "-fx-padding: 10 15; " +
-                "-fx-background-radius: 10; " +
-                "-fx-cursor: default;"
-            );
-            addToCartBtn.setDisable(true);
+            
+            // Botón de favoritos (siempre disponible)
+            wishlistBtn.getStyleClass().add("btn-icon");
+            wishlistBtn.setStyle("-fx-font-size: 18px; -fx-min-width: 40px;");
+            wishlistBtn.setOnAction(e -> toggleWishlist(product, wishlistBtn));
+            
+            buttonsBox.getChildren().addAll(addToCartBtn, wishlistBtn);
+            
+            getChildren().addAll(imageContainer, nameLabel, priceLabel, stockLabel, viewDetailsBtn, buttonsBox);
         }
         
-        // Botón de favoritos (siempre disponible)
-        String heartIcon = userController.isInWishlist(product.getId()) ? "♥" : "♡";
-        Button wishlistBtn = new Button(heartIcon);
-        wishlistBtn.getStyleClass().add("btn-icon");
-        wishlistBtn.setStyle("-fx-font-size: 18px; -fx-min-width: 40px;");
-        wishlistBtn.setOnAction(e -> toggleWishlist(product, wishlistBtn));
-        
-        buttonsBox.getChildren().addAll(addToCartBtn, wishlistBtn);
-        
-        // Solo animar hover si está disponible
-        if (isAvailable) {
-            AnimationUtil.scaleOnHover(card, 1.05);
-        } else {
-            // Estilo diferente para productos no disponibles
-            card.setStyle("-fx-opacity: 0.85;");
+        void setProduct(Product product) {
+            this.product = product;
+            
+            // Verificar si el producto está disponible
+            boolean isAvailable = product.isActive() && product.getStock() > 0;
+            
+            if (!Objects.equals(imagePath, product.getImagePath())) {
+                imagePath = product.getImagePath();
+                // Reducida al tamaño de la tarjeta y decodificada en segundo plano
+                ImageCache.load(imageView, imagePath, 220, 220);
+            }
+            
+            // Overlay de "Sin Stock" si no está disponible: oscurecer la imagen
+            imageView.setOpacity(isAvailable ? 1.0 : 0.5);
+            outOfStockBadge.setVisible(!isAvailable);
+            
+            nameLabel.setText(product.getName());
+            
+            priceLabel.setText(CurrencyFormatter.formatPrice(product.getPrice()));
+            priceLabel.setStyle(isAvailable ? "" : "-fx-font-size: 22px; -fx-font-weight: bold; -fx-text-fill: #95A5A6;");
+            
+            // Stock
+            if (!isAvailable) {
+                stockLabel.setText("❌ Agotado - Sin Stock");
+                stockLabel.setStyle("-fx-font-size: 13px; -fx-text-fill: #E74C3C; -fx-font-weight: bold;");
+            } else if (product.getStock() <= 5) {
+                stockLabel.setText("⚠️ ¡Solo " + product.getStock() + " disponibles!");
+                stockLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #E67E22; -fx-font-weight: bold;");
+            } else {
+                stockLabel.setText("✓ " + product.getStock() + " disponibles");
+                stockLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #27AE60; -fx-font-weight: bold;");
+            }
+            
+            addToCartBtn.setText(isAvailable ? "🛒 Agregar" : "No Disponible");
+            addToCartBtn.setDisable(!isAvailable);
+            if (isAvailable) {
+                if (!addToCartBtn.getStyleClass().contains("btn-primary")) {
+                    addToCartBtn.getStyleClass().add("btn-primary");
+                }
+                addToCartBtn.setStyle("-fx-font-size: 12px; -fx-padding: 10 15;");
+            } else {
+                addToCartBtn.getStyleClass().remove("btn-primary");
+                addToCartBtn.setStyle(
+                    "-fx-background-color: #BDC3C7; " +
+                    "-fx-text-fill: #7F8C8D; " +
+                    "-fx-font-size: 12px; " +
+                    "-fx-padding: 10 15; " +
+                    "-fx-background-radius: 10; " +
+                    "-fx-cursor: default;"
+                );
+            }
+            
+            wishlistBtn.setText(userController.isInWishlist(product.getId()) ? "♥" : "♡");
+            
+            // Solo animar hover si está disponible
+            setScaleX(1.0);
+            setScaleY(1.0);
+            if (isAvailable) {
+                AnimationUtil.scaleOnHover(this, 1.05);
+                setStyle("");
+            } else {
+                // Estilo diferente para productos no disponibles
+                setOnMouseEntered(null);
+                setOnMouseExited(null);
+                setStyle("-fx-opacity: 0.85;");
+            }
         }
-        
-        card.getChildren().addAll(imageContainer, nameLabel, priceLabel, stockLabel, viewDetailsBtn, buttonsBox);
-        
-        return card;
     }
     
     private void addToCart(Product product) {
@@ -1,6 +1,7 @@
 package com.mycompany.shoesunicor.view;
 
 import com.mycompany.shoesunicor.controller.AuthController;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -18,6 +19,7 @@ public class RegisterView extends VBox {
     private PasswordField passwordField;
     private PasswordField confirmPasswordField;
     private Label messageLabel;
+    private Button registerButton;
     private AuthController authController;
     private Runnable onRegisterSuccess;
     private Runnable onBackToLogin;
@@ -91,7 +93,7 @@ public class RegisterView extends VBox {
         messageLabel.setWrapText(true);
         
         // Botón de registro
-        Button registerButton = new Button("Registrarse");
+        registerButton = new Button("Registrarse");
         registerButton.getStyleClass().add("btn-primary");
         registerButton.setMaxWidth(Double.MAX_VALUE);
         registerButton.setOnAction(e -> handleRegister());
@@ -148,21 +150,28 @@ public class RegisterView extends VBox {
             return;
         }
         
-        // Intentar registro
-        if (authController.register(username, password, email, fullName)) {
-            showSuccess("¡Cuenta creada exitosamente!");
-            // Esperar un momento y volver al login
-            new Thread(() -> {
-                try {
-                    Thread.sleep(1500);
-                    javafx.application.Platform.runLater(onRegisterSuccess);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }).start();
-        } else {
-            showError("El usuario o email ya están registrados");
-        }
+        // Intentar registro fuera del hilo de JavaFX: el hash de la contraseña toma decenas de ms
+        registerButton.setDisable(true);
+        authController.registerAsync(username, password, email, fullName).whenComplete((registered, error) -> Platform.runLater(() -> {
+            registerButton.setDisable(false);
+            if (error != null) {
+                System.err.println("Error registrando usuario: " + error.getMessage());
+                showError("No se pudo crear la cuenta, intenta de nuevo");
+            } else if (registered) {
+                showSuccess("¡Cuenta creada exitosamente!");
+                // Esperar un momento y volver al login
+                new Thread(() -> {
+                    try {
+                        Thread.sleep(1500);
+                        Platform.runLater(onRegisterSuccess);
+                    } catch (InterruptedException e) {
+                        e.printStackTrace();
+                    }
+                }).start();
+            } else {
+                showError("El usuario o email ya están registrados");
+            }
+        }));
     }
     
     private void showError(String message) {
@@ -4,16 +4,16 @@ import com.mycompany.shoesunicor.controller.ProductController;
 import com.mycompany.shoesunicor.controller.UserController;
 import com.mycompany.shoesunicor.model.CartItem;
 import com.mycompany.shoesunicor.model.Product;
+import com.mycompany.shoesunicor.util.DataLoadService;
+import com.mycompany.shoesunicor.util.ImageCache;
 import com.mycompany.shoesunicor.util.Session;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
 import javafx.scene.text.Text;
 
-import java.io.File;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -26,11 +26,15 @@ public class WishlistView extends VBox {
     private UserController userController;
     private Session session;
     private FlowPane wishlistContainer;
+    private DataLoadService<List<Product>> wishlistLoader;
     
     public WishlistView() {
         this.productController = new ProductController();
         this.userController = new UserController();
         this.session = Session.getInstance();
+        this.wishlistLoader = new DataLoadService<>(this, this::showWishlist,
+                error -> wishlistContainer.getChildren().setAll(DataLoadService.createErrorPlaceholder(
+                        "No se pudieron cargar tus favoritos", this::loadWishlist)));
         
         setupUI();
     }
@@ -63,22 +67,26 @@ public class WishlistView extends VBox {
     }
     
     private void loadWishlist() {
-        wishlistContainer.getChildren().clear();
-        
-        List<String> wishlistIds = userController.getWishlistProductIds();
+        List<String> wishlistIds = List.copyOf(userController.getWishlistProductIds());
         
         if (wishlistIds.isEmpty()) {
+            wishlistLoader.cancel();
+            wishlistContainer.getChildren().clear();
             Label emptyLabel = new Label("Tu lista de favoritos está vacía");
             emptyLabel.setStyle("-fx-font-size: 18px; -fx-text-fill: #7F8C8D;");
             wishlistContainer.getChildren().add(emptyLabel);
             return;
         }
         
-        List<Product> wishlistProducts = wishlistIds.stream()
+        wishlistContainer.getChildren().setAll(DataLoadService.createPlaceholder("Cargando favoritos..."));
+        wishlistLoader.load(() -> wishlistIds.stream()
                 .map(productController::getProductById)
                 .filter(p -> p != null && p.isActive())
-                .collect(Collectors.toList());
-        
+                .collect(Collectors.toList()));
+    }
+    
+    private void showWishlist(List<Product> wishlistProducts) {
+        wishlistContainer.getChildren().clear();
         for (Product product : wishlistProducts) {
             wishlistContainer.getChildren().add(createProductCard(product));
         }
@@ -105,14 +113,7 @@ public class WishlistView extends VBox {
         imageView.setFitHeight(220);
         imageView.setPreserveRatio(true);
         
-        try {
-            File imageFile = new File(product.getImagePath());
-            if (imageFile.exists()) {
-                imageView.setImage(new Image(imageFile.toURI().toString()));
-            }
-        } catch (Exception e) {
-            // Imagen por defecto
-        }
+        ImageCache.load(imageView, product.getImagePath(), 220, 220);
         
         imageView.getStyleClass().add("product-image");
         
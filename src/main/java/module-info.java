@@ -1,6 +1,8 @@
 module com.mycompany.shoesunicor {
     requires javafx.controls;
     requires javafx.fxml;
+    requires java.desktop;
+    requires jdk.httpserver;
     requires transitive com.google.gson;
     requires transitive javafx.graphics;
     requires transitive javafx.base;
@@ -13,5 +15,7 @@ module com.mycompany.shoesunicor {
     exports com.mycompany.shoesunicor.view;
     exports com.mycompany.shoesunicor.model;
     exports com.mycompany.shoesunicor.controller;
+    exports com.mycompany.shoesunicor.repository;
     exports com.mycompany.shoesunicor.util;
+    exports com.mycompany.shoesunicor.api;
 }
@@ -0,0 +1,121 @@
+package com.mycompany.shoesunicor.repository;
+
+import com.mycompany.shoesunicor.model.Order;
+import com.mycompany.shoesunicor.model.OrderStatus;
+import com.mycompany.shoesunicor.util.TestDataDirectory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Consultas de órdenes por rango de fechas sobre los índices ordenados
+ * @author Victor Negrete
+ */
+class OrderRepositoryTest {
+    private static final LocalDateTime MARCH_1 = LocalDateTime.of(2026, 3, 1, 10, 0);
+
+    private static OrderRepository repository;
+
+    /**
+     * Órdenes O1..O5 de "ana" el 1..5 de marzo a las 10:00, y O6 de "luis" el 3 de marzo.
+     * O2 y O4 quedan entregadas, el resto pendientes.
+     */
+    @BeforeAll
+    static void setUp() throws IOException {
+        TestDataDirectory.reset();
+        repository = OrderRepository.getInstance();
+        for (int day = 1; day <= 5; day++) {
+            OrderStatus status = day % 2 == 0 ? OrderStatus.DELIVERED : OrderStatus.PENDING;
+            repository.save(newOrder("O" + day, "ana", MARCH_1.plusDays(day - 1), status));
+        }
+        repository.save(newOrder("O6", "luis", MARCH_1.plusDays(2), OrderStatus.PENDING));
+    }
+
+    private static Order newOrder(String id, String userId, LocalDateTime date, OrderStatus status) {
+        Order order = new Order(id, userId, userId, List.of(), 100.0, "Calle 1");
+        order.setOrderDate(date);
+        order.setStatus(status);
+        return order;
+    }
+
+    private static List<String> ids(OrderPage page) {
+        return page.getOrders().stream().map(Order::getId).toList();
+    }
+
+    @Test
+    void rangeIncludesBothEndsNewestFirst() {
+        OrderPage page = repository.query(new OrderQuery()
+                .between(MARCH_1.plusDays(1), MARCH_1.plusDays(3)));
+
+        assertEquals(List.of("O4", "O6", "O3", "O2"), ids(page));
+        assertEquals(4, page.getTotalCount());
+    }
+
+    @Test
+    void openEndedRanges() {
+        assertEquals(List.of("O5", "O4"),
+                ids(repository.query(new OrderQuery().forUser("ana").between(MARCH_1.plusDays(3), null))));
+        assertEquals(List.of("O2", "O1"),
+                ids(repository.query(new OrderQuery().between(null, MARCH_1.plusDays(1)))));
+    }
+
+    @Test
+    void rangeCombinesWithUserAndStatus() {
+        LocalDateTime from = MARCH_1.plusDays(1);
+        LocalDateTime to = MARCH_1.plusDays(4);
+
+        assertEquals(List.of("O5", "O4", "O3", "O2"),
+                ids(repository.query(new OrderQuery().forUser("ana").between(from, to))));
+        assertEquals(List.of("O4", "O2"),
+                ids(repository.query(new OrderQuery().withStatus(OrderStatus.DELIVERED).between(from, to))));
+        assertEquals(List.of("O5", "O3"), ids(repository.query(new OrderQuery()
+                .forUser("ana").withStatus(OrderStatus.PENDING).between(from, to))));
+    }
+
+    @Test
+    void rangePagesWithoutLosingTotal() {
+        OrderQuery query = new OrderQuery().between(MARCH_1, MARCH_1.plusDays(4));
+
+        OrderPage first = repository.query(query.page(0, 4));
+        assertEquals(List.of("O5", "O4", "O6", "O3"), ids(first));
+        assertEquals(6, first.getTotalCount());
+        assertTrue(first.hasMore());
+
+        OrderPage second = repository.query(query.page(4, 4));
+        assertEquals(List.of("O2", "O1"), ids(second));
+        assertFalse(second.hasMore());
+    }
+
+    @Test
+    void invertedRangeIsEmpty() {
+        LocalDateTime from = MARCH_1.plusDays(3);
+        LocalDateTime to = MARCH_1.plusDays(1);
+
+        OrderPage page = repository.query(new OrderQuery().between(from, to));
+        assertTrue(page.getOrders().isEmpty());
+        assertEquals(0, page.getTotalCount());
+        assertFalse(page.hasMore());
+
+        assertTrue(repository.query(new OrderQuery().forUser("ana").between(from, to)).getOrders().isEmpty());
+        assertTrue(repository.query(new OrderQuery().withStatus(OrderStatus.PENDING).idContains("o")
+                .between(from, to).page(0, 10)).getOrders().isEmpty());
+    }
+
+    @Test
+    void rangeSeesOrdersMovedByAnUpdate() {
+        repository.save(newOrder("O7", "eva", MARCH_1.plusDays(10), OrderStatus.PENDING));
+        repository.update("O7", order -> order.setOrderDate(MARCH_1.plusDays(20)));
+
+        assertTrue(ids(repository.query(new OrderQuery()
+                .between(MARCH_1.plusDays(9), MARCH_1.plusDays(11)))).isEmpty());
+        assertEquals(List.of("O7"), ids(repository.query(new OrderQuery()
+                .between(MARCH_1.plusDays(19), MARCH_1.plusDays(21)))));
+    }
+}
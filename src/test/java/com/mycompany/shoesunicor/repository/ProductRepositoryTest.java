@@ -0,0 +1,127 @@
+package com.mycompany.shoesunicor.repository;
+
+import com.mycompany.shoesunicor.model.Product;
+import com.mycompany.shoesunicor.util.JsonDatabase;
+import com.mycompany.shoesunicor.util.TestDataDirectory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reserva y devolución de stock: todo o nada, y la devolución deshace exactamente la reserva
+ * @author Victor Negrete
+ */
+class ProductRepositoryTest {
+    private static ProductRepository repository;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        TestDataDirectory.reset();
+        repository = ProductRepository.getInstance();
+    }
+
+    private static Product newProduct(int stock) {
+        Product product = new Product(JsonDatabase.generateId("P"), "Tenis", "", 100.0,
+                stock, "", "Deportivo", "Marca");
+        repository.save(product);
+        return product;
+    }
+
+    private static Map<String, Integer> lines(Object... idAndQuantity) {
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (int i = 0; i < idAndQuantity.length; i += 2) {
+            quantities.put((String) idAndQuantity[i], (Integer) idAndQuantity[i + 1]);
+        }
+        return quantities;
+    }
+
+    /**
+     * Vuelve a leer desde disco para verificar lo persistido y no solo la memoria
+     */
+    private static Product persisted(String id) {
+        repository.reload();
+        return repository.findById(id);
+    }
+
+    @Test
+    void reserveSubtractsEveryLineAndDeactivatesSoldOutProducts() {
+        Product partial = newProduct(5);
+        Product lastUnits = newProduct(2);
+
+        StockReservation reservation = repository.reserveStock(
+                lines(partial.getId(), 3, lastUnits.getId(), 2));
+
+        assertNotNull(reservation);
+        assertEquals(Set.of(lastUnits.getId()), reservation.getDeactivatedProductIds());
+        assertEquals(2, persisted(partial.getId()).getStock());
+        assertTrue(persisted(partial.getId()).isActive());
+        assertEquals(0, persisted(lastUnits.getId()).getStock());
+        assertFalse(persisted(lastUnits.getId()).isActive());
+    }
+
+    @Test
+    void reserveChangesNothingWhenAnyLineIsShort() {
+        Product enough = newProduct(5);
+        Product shortOfStock = newProduct(1);
+
+        StockReservation reservation = repository.reserveStock(
+                lines(enough.getId(), 5, shortOfStock.getId(), 2));
+
+        assertNull(reservation);
+        assertEquals(5, persisted(enough.getId()).getStock());
+        assertTrue(persisted(enough.getId()).isActive());
+        assertEquals(1, persisted(shortOfStock.getId()).getStock());
+    }
+
+    @Test
+    void reserveRejectsUnknownProductsAndNonPositiveQuantities() {
+        Product product = newProduct(5);
+
+        assertNull(repository.reserveStock(lines(product.getId(), 1, "P-NO-EXISTE", 1)));
+        assertNull(repository.reserveStock(lines(product.getId(), 0)));
+        assertNull(repository.reserveStock(lines(product.getId(), -2)));
+        assertNull(repository.reserveStock(Map.of()));
+        assertEquals(5, persisted(product.getId()).getStock());
+    }
+
+    @Test
+    void releaseRestoresStockAndReactivatesWhatTheReservationDeactivated() {
+        Product partial = newProduct(5);
+        Product lastUnits = newProduct(2);
+        StockReservation reservation = repository.reserveStock(
+                lines(partial.getId(), 3, lastUnits.getId(), 2));
+        assertNotNull(reservation);
+
+        repository.releaseStock(reservation);
+
+        assertEquals(5, persisted(partial.getId()).getStock());
+        assertTrue(persisted(partial.getId()).isActive());
+        assertEquals(2, persisted(lastUnits.getId()).getStock());
+        assertTrue(persisted(lastUnits.getId()).isActive());
+    }
+
+    @Test
+    void releaseKeepsProductsThatWereAlreadyInactive() {
+        Product hidden = newProduct(2);
+        assertTrue(repository.setActive(hidden.getId(), false));
+
+        StockReservation reservation = repository.reserveStock(lines(hidden.getId(), 2));
+        assertNotNull(reservation);
+        assertTrue(reservation.getDeactivatedProductIds().isEmpty());
+
+        repository.releaseStock(reservation);
+
+        assertEquals(2, persisted(hidden.getId()).getStock());
+        assertFalse(persisted(hidden.getId()).isActive());
+    }
+}
@@ -0,0 +1,118 @@
+package com.mycompany.shoesunicor.util;
+
+import com.mycompany.shoesunicor.model.Order;
+import com.mycompany.shoesunicor.model.Product;
+import com.mycompany.shoesunicor.model.User;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Recuperación de JsonDatabase al inicio tras una caída durante una escritura
+ * Los archivos se dejan como los dejaría la caída antes de cargar JsonDatabase,
+ * porque la recuperación corre una sola vez al inicializarse la clase.
+ * @author Victor Negrete
+ */
+class JsonDatabaseRecoveryTest {
+    private static final String CORRUPT_ORDERS = "[{\"id\":\"o1\",\"userId\":\"u1\",\"total\":";
+
+    private static Path dataDir;
+
+    @BeforeAll
+    static void simulateCrash() throws IOException {
+        dataDir = TestDataDirectory.reset();
+
+        // Caída entre el fsync del temporal y el rename: la instantánea no llegó a existir
+        write("products.json.1234.tmp",
+                "[{\"id\":\"p1\",\"name\":\"Tenis\",\"price\":100.0,\"stock\":3,\"active\":true},"
+                + "{\"id\":\"p2\",\"name\":\"Botas\",\"price\":200.0,\"stock\":5,\"active\":true}]");
+        // Caída a mitad de un append: la última línea del log quedó cortada
+        write("products.log",
+                "{\"id\":\"p1\",\"name\":\"Tenis\",\"price\":100.0,\"stock\":1,\"active\":true}\n"
+                + "{\"id\":\"p2\",\"name\":\"Bot");
+
+        // Caída a mitad del temporal: la instantánea sigue intacta
+        write("users.json", "[{\"id\":\"u1\",\"username\":\"ana\",\"role\":\"USER\"}]");
+        write("users.json.5678.tmp", "[{\"id\":\"u1\",\"username\":\"ana\",\"ro");
+
+        // Instantánea dañada sin temporal del que recuperarla
+        write("orders.json", CORRUPT_ORDERS);
+
+        // Primera carga de JsonDatabase: corre la recuperación
+        JsonDatabase.loadUsers();
+    }
+
+    private static void write(String fileName, String content) throws IOException {
+        Files.writeString(dataDir.resolve(fileName), content, StandardCharsets.UTF_8);
+    }
+
+    private static List<Path> files(String glob) throws IOException {
+        List<Path> found = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dataDir, glob)) {
+            stream.forEach(found::add);
+        }
+        return found;
+    }
+
+    @Test
+    void promotesCompleteTempWhenSnapshotIsMissing() throws IOException {
+        assertTrue(Files.exists(dataDir.resolve("products.json")));
+        assertTrue(files("products.json.*.tmp").isEmpty());
+
+        Map<String, Product> products = JsonDatabase.loadProducts().stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        assertEquals(2, products.size());
+        assertEquals(5, products.get("p2").getStock());
+    }
+
+    @Test
+    void appliesLogAndDiscardsTruncatedLine() {
+        Product p1 = JsonDatabase.loadProducts().stream()
+                .filter(p -> p.getId().equals("p1"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1, p1.getStock());
+    }
+
+    @Test
+    void discardsPartialTempAndKeepsIntactSnapshot() throws IOException {
+        assertTrue(files("users.json.*.tmp").isEmpty());
+
+        List<User> users = JsonDatabase.loadUsers();
+        assertNotNull(users);
+        assertEquals(1, users.size());
+        assertEquals("ana", users.get(0).getUsername());
+    }
+
+    @Test
+    void quarantinesCorruptSnapshotAndStartsEmpty() throws IOException {
+        List<Path> quarantined = files("orders.json.corrupt-*");
+        assertEquals(1, quarantined.size());
+        assertEquals(CORRUPT_ORDERS, Files.readString(quarantined.get(0), StandardCharsets.UTF_8));
+
+        List<Order> orders = JsonDatabase.loadOrders();
+        assertNotNull(orders);
+        assertTrue(orders.isEmpty());
+    }
+
+    @Test
+    void recoveryBumpsVersionOfRepairedCollections() {
+        assertTrue(JsonDatabase.productsVersion() > 0);
+        assertTrue(JsonDatabase.ordersVersion() > 0);
+        assertEquals(0, JsonDatabase.usersVersion());
+    }
+}
@@ -0,0 +1,41 @@
+package com.mycompany.shoesunicor.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Directorio de datos de las pruebas
+ * JsonDatabase usa una ruta relativa al directorio de trabajo; Surefire corre las pruebas
+ * en target/test-data, así que aquí se puede vaciar sin tocar los datos reales.
+ * Debe llamarse antes de que se cargue JsonDatabase (una JVM por clase de prueba).
+ * @author Victor Negrete
+ */
+public final class TestDataDirectory {
+
+    private TestDataDirectory() {
+    }
+
+    /**
+     * Deja el directorio de datos vacío y lo retorna
+     * @throws IllegalStateException si las pruebas corren sobre el proyecto (datos reales)
+     */
+    public static Path reset() throws IOException {
+        if (Files.exists(Paths.get("pom.xml"))) {
+            throw new IllegalStateException("Las pruebas deben correr en target/test-data, no en el proyecto");
+        }
+        Path dir = Paths.get(JsonDatabase.DATA_DIR);
+        if (Files.exists(dir)) {
+            try (Stream<Path> paths = Files.walk(dir)) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+        Files.createDirectories(dir);
+        return dir;
+    }
+}